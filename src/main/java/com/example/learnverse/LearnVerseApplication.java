@@ -1,12 +1,15 @@
 package com.example.learnverse;
 
+import com.example.learnverse.ai.config.GeminiClientProperties;
 import com.example.learnverse.auth.admin.AdminProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties(AdminProperties.class)
+@EnableConfigurationProperties({AdminProperties.class, GeminiClientProperties.class})
+@EnableScheduling
 public class LearnVerseApplication {
 
     public static void main(String[] args) {
@@ -1,10 +1,13 @@
 package com.example.learnverse.activity.controller;
 
 import com.example.learnverse.activity.model.Activity;
+import com.example.learnverse.activity.model.CourseVideo;
 import com.example.learnverse.activity.service.ActivityService;
+import com.example.learnverse.activity.service.VideoManagementService;
 import com.example.learnverse.enrollment.service.EnrollmentVerificationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -12,7 +15,6 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/activities")
@@ -21,6 +23,7 @@ import java.util.stream.Collectors;
 public class ActivityAccessController {
 
     private final ActivityService activityService;
+    private final VideoManagementService videoManagementService;
     private final EnrollmentVerificationService enrollmentVerificationService;
 
     /**
@@ -54,14 +57,8 @@ public class ActivityAccessController {
             publicInfo.put("featured", activity.getFeatured());
 
             // Add preview videos only (isPreview = true)
-            if (activity.getVideoContent() != null &&
-                    activity.getVideoContent().getRecordedVideos() != null) {
-
-                List<Activity.VideoContent.Video> previewVideos = activity.getVideoContent()
-                        .getRecordedVideos()
-                        .stream()
-                        .filter(video -> video.getIsPreview() != null && video.getIsPreview())
-                        .collect(Collectors.toList());
+            if (activity.getVideoContent() != null) {
+                List<CourseVideo> previewVideos = videoManagementService.getPreviewVideos(activityId);
 
                 publicInfo.put("previewVideos", previewVideos);
                 publicInfo.put("totalVideoCount", activity.getVideoContent().getTotalVideoCount());
@@ -103,6 +100,8 @@ public class ActivityAccessController {
     @GetMapping("/{activityId}/videos")
     public ResponseEntity<?> getActivityVideos(
             @PathVariable String activityId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
             Authentication auth) {
         try {
             String userId = auth.getName();
@@ -120,12 +119,17 @@ public class ActivityAccessController {
                 ));
             }
 
+            // One page of lectures in order; totals come from the activity counters
+            Page<CourseVideo> videos = videoManagementService.getVideos(activityId, page, size);
+
             // Build response with null-safe handling
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("videos", activity.getVideoContent().getRecordedVideos() != null
-                    ? activity.getVideoContent().getRecordedVideos()
-                    : List.of());
+            response.put("videos", videos.getContent());
+            response.put("pageNumber", videos.getNumber());
+            response.put("pageSize", videos.getSize());
+            response.put("totalPages", videos.getTotalPages());
+            response.put("last", videos.isLast());
             response.put("totalVideoCount", activity.getVideoContent().getTotalVideoCount() != null
                     ? activity.getVideoContent().getTotalVideoCount()
                     : 0);
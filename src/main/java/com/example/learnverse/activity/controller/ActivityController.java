@@ -1,15 +1,13 @@
 package com.example.learnverse.activity.controller;
 
-import com.cloudinary.Cloudinary;
-import com.cloudinary.Transformation;
-import com.cloudinary.utils.ObjectUtils;
 import com.example.learnverse.activity.model.Activity;
 import com.example.learnverse.activity.model.PagedResponse;
 import com.example.learnverse.activity.repository.ActivityRepository;
 import com.example.learnverse.activity.service.ActivityService;
 import com.example.learnverse.activity.filter.ActivityFilterDto;
 import com.example.learnverse.auth.annotation.RequireApprovedTutor;
-import com.example.learnverse.community.cloudinary.CloudinaryService;
+import com.example.learnverse.media.store.MediaSpec;
+import com.example.learnverse.media.store.MediaStore;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -40,7 +38,7 @@ public class ActivityController {
     private ActivityRepository activityRepository;
 
     @Autowired
-    private Cloudinary cloudinary;
+    private MediaStore mediaStore;
 
     @Data
     public static class NaturalSearchRequest {
@@ -428,21 +426,9 @@ public class ActivityController {
                 ));
             }
 
-            // Upload to Cloudinary
-            Map uploadResult = cloudinary.uploader().upload(
-                    banner.getBytes(),
-                    ObjectUtils.asMap(
-                            "folder", "learnverse/activity-banners",
-                            "public_id", activityId + "/banner_" + UUID.randomUUID(),
-                            "resource_type", "image",
-                            "transformation", new Transformation()
-                                    .width(1200).height(300)
-                                    .crop("fill")
-                                    .quality("auto")
-                    )
-            );
-
-            String bannerUrl = (String) uploadResult.get("secure_url");
+            String bannerUrl = mediaStore.store(banner, MediaSpec.image("learnverse/activity-banners")
+                    .named(activityId + "/banner_" + UUID.randomUUID())
+                    .fit(1200, 300, "fill")).url();
             activity.setBannerImageUrl(bannerUrl);
             activity.setUpdatedAt(new Date());
 
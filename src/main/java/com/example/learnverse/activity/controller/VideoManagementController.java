@@ -1,11 +1,17 @@
 package com.example.learnverse.activity.controller;
 
 import com.example.learnverse.activity.dto.VideoDTO;
-import com.example.learnverse.activity.model.Activity;
+import com.example.learnverse.activity.model.CourseVideo;
+import com.example.learnverse.activity.model.PagedResponse;
+import com.example.learnverse.activity.service.ResumableVideoUploadService;
 import com.example.learnverse.activity.service.VideoManagementService;
+import com.example.learnverse.media.model.MediaJob;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -24,6 +30,7 @@ import java.util.Map;
 public class VideoManagementController {
 
     private final VideoManagementService videoManagementService;
+    private final ResumableVideoUploadService resumableUploadService;
 
     /**
      * Upload video file and add to activity
@@ -67,14 +74,17 @@ public class VideoManagementController {
                     .isPreview(isPreview)
                     .build();
 
-            Activity activity = videoManagementService.uploadAndAddVideo(
+            MediaJob job = videoManagementService.uploadAndAddVideo(
                     activityId, tutorId, request, file
             );
 
-            return ResponseEntity.ok(Map.of(
+            // Upload continues in the background; a MEDIA_READY/MEDIA_FAILED event follows on user:{tutorId}
+            return ResponseEntity.accepted().body(Map.of(
                     "success", true,
-                    "message", "Video uploaded successfully",
-                    "activity", activity
+                    "message", "Video upload started",
+                    "jobId", job.getId(),
+                    "videoId", job.getItemId(),
+                    "status", job.getStatus()
             ));
         } catch (IOException e) {
             log.error("❌ Upload error: {}", e.getMessage());
@@ -91,6 +101,140 @@ public class VideoManagementController {
         }
     }
 
+    /**
+     * Resumable upload, step 1: declare the file and get an upload id and chunk layout
+     */
+    @PostMapping("/{activityId}/videos/uploads")
+    public ResponseEntity<?> initiateUpload(
+            @PathVariable String activityId,
+            @Valid @RequestBody VideoDTO.InitiateUploadRequest request,
+            Authentication auth) {
+        try {
+            return ResponseEntity.ok(resumableUploadService.initiate(activityId, auth.getName(), request));
+        } catch (Exception e) {
+            log.error("❌ Error starting upload: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Resumable upload, step 2: PUT each chunk as a raw body with its SHA-256 in X-Chunk-SHA256.
+     * Chunks may be sent in any order and in parallel.
+     */
+    @PutMapping(value = "/{activityId}/videos/uploads/{uploadId}/chunks/{index}",
+            consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<?> uploadChunk(
+            @PathVariable String activityId,
+            @PathVariable String uploadId,
+            @PathVariable int index,
+            @RequestHeader("X-Chunk-SHA256") String sha256,
+            HttpServletRequest request,
+            Authentication auth) {
+        try {
+            return ResponseEntity.ok(resumableUploadService.uploadChunk(
+                    activityId, uploadId, auth.getName(), index, sha256, request.getInputStream()));
+        } catch (IOException e) {
+            log.error("❌ Chunk {} of upload {} failed: {}", index, uploadId, e.getMessage());
+            return ResponseEntity.status(500).body(Map.of(
+                    "success", false,
+                    "error", "Chunk upload failed: " + e.getMessage()
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Resumable upload: received offset and missing chunks, for resuming after a disconnect
+     */
+    @GetMapping("/{activityId}/videos/uploads/{uploadId}")
+    public ResponseEntity<?> getUploadStatus(
+            @PathVariable String activityId,
+            @PathVariable String uploadId,
+            Authentication auth) {
+        try {
+            return ResponseEntity.ok(resumableUploadService.getStatus(activityId, uploadId, auth.getName()));
+        } catch (Exception e) {
+            return ResponseEntity.status(404).body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * Resumable upload, step 3: assemble the chunks and queue the video for processing
+     */
+    @PostMapping("/{activityId}/videos/uploads/{uploadId}/complete")
+    public ResponseEntity<?> completeUpload(
+            @PathVariable String activityId,
+            @PathVariable String uploadId,
+            Authentication auth) {
+        try {
+            return ResponseEntity.accepted().body(resumableUploadService.complete(activityId, uploadId, auth.getName()));
+        } catch (Exception e) {
+            log.error("❌ Error completing upload {}: {}", uploadId, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
+    @DeleteMapping("/{activityId}/videos/uploads/{uploadId}")
+    public ResponseEntity<?> abortUpload(
+            @PathVariable String activityId,
+            @PathVariable String uploadId,
+            Authentication auth) {
+        try {
+            resumableUploadService.abort(activityId, uploadId, auth.getName());
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Upload aborted"
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
+    /**
+     * List the activity's videos in lecture order, one page at a time
+     */
+    @GetMapping("/{activityId}/videos")
+    public ResponseEntity<?> getVideos(
+            @PathVariable String activityId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication auth) {
+        try {
+            Page<CourseVideo> videos = videoManagementService.getVideosForTutor(activityId, auth.getName(), page, size);
+
+            return ResponseEntity.ok(new PagedResponse<>(
+                    videos.getContent(),
+                    videos.getNumber(),
+                    videos.getSize(),
+                    videos.getTotalElements(),
+                    videos.getTotalPages(),
+                    videos.isLast()
+            ));
+        } catch (Exception e) {
+            log.error("❌ Error listing videos: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "error", e.getMessage()
+            ));
+        }
+    }
+
     /**
      * Add video with existing URL (manual)
      */
@@ -101,12 +245,12 @@ public class VideoManagementController {
             Authentication auth) {
         try {
             String tutorId = auth.getName();
-            Activity activity = videoManagementService.addVideo(activityId, tutorId, request);
+            CourseVideo video = videoManagementService.addVideo(activityId, tutorId, request);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Video added successfully",
-                    "activity", activity
+                    "video", video
             ));
         } catch (Exception e) {
             log.error("❌ Error adding video: {}", e.getMessage());
@@ -128,12 +272,12 @@ public class VideoManagementController {
             Authentication auth) {
         try {
             String tutorId = auth.getName();
-            Activity activity = videoManagementService.updateVideo(activityId, videoId, tutorId, request);
+            CourseVideo video = videoManagementService.updateVideo(activityId, videoId, tutorId, request);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Video updated successfully",
-                    "activity", activity
+                    "video", video
             ));
         } catch (Exception e) {
             log.error("❌ Error updating video: {}", e.getMessage());
@@ -154,12 +298,12 @@ public class VideoManagementController {
             Authentication auth) {
         try {
             String tutorId = auth.getName();
-            Activity activity = videoManagementService.deleteVideo(activityId, videoId, tutorId);
+            CourseVideo video = videoManagementService.deleteVideo(activityId, videoId, tutorId);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Video deleted successfully",
-                    "activity", activity
+                    "video", video
             ));
         } catch (Exception e) {
             log.error("❌ Error deleting video: {}", e.getMessage());
@@ -181,12 +325,12 @@ public class VideoManagementController {
             Authentication auth) {
         try {
             String tutorId = auth.getName();
-            Activity activity = videoManagementService.addResourceToVideo(activityId, videoId, tutorId, request);
+            CourseVideo video = videoManagementService.addResourceToVideo(activityId, videoId, tutorId, request);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Resource added successfully",
-                    "activity", activity
+                    "video", video
             ));
         } catch (Exception e) {
             log.error("❌ Error adding resource: {}", e.getMessage());
@@ -218,14 +362,14 @@ public class VideoManagementController {
                 ));
             }
 
-            Activity activity = videoManagementService.uploadResourceToVideo(
+            CourseVideo video = videoManagementService.uploadResourceToVideo(
                     activityId, videoId, tutorId, resourceType, resourceTitle, file
             );
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Resource uploaded successfully",
-                    "activity", activity
+                    "video", video
             ));
         } catch (IOException e) {
             log.error("❌ Error uploading resource: {}", e.getMessage());
@@ -253,13 +397,13 @@ public class VideoManagementController {
             Authentication auth) {
         try {
             String tutorId = auth.getName();
-            Activity activity = videoManagementService.deleteResourceByUrl(
+            CourseVideo video = videoManagementService.deleteResourceByUrl(
                     activityId, videoId, resourceUrl, tutorId);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Resource deleted successfully",
-                    "activity", activity
+                    "video", video
             ));
         } catch (Exception e) {
             log.error("❌ Error deleting resource: {}", e.getMessage());
@@ -281,12 +425,12 @@ public class VideoManagementController {
             Authentication auth) {
         try {
             String tutorId = auth.getName();
-            Activity activity = videoManagementService.reorderVideos(activityId, tutorId, videoIds);
+            videoManagementService.reorderVideos(activityId, tutorId, videoIds);
 
             return ResponseEntity.ok(Map.of(
                     "success", true,
                     "message", "Videos reordered successfully",
-                    "activity", activity
+                    "videoCount", videoIds.size()
             ));
         } catch (Exception e) {
             log.error("❌ Error reordering videos: {}", e.getMessage());
@@ -117,4 +117,57 @@ public class VideoDTO {
         @NotBlank(message = "Resource URL is required")
         private String url;
     }
+
+    /**
+     * Start a resumable upload: file metadata plus the video details used once it completes
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class InitiateUploadRequest {
+        @NotBlank(message = "File name is required")
+        private String fileName;
+
+        @NotBlank(message = "Content type is required")
+        private String contentType;
+
+        @NotNull(message = "Total size is required")
+        @Min(value = 1, message = "Total size must be positive")
+        private Long totalSize;
+
+        // Optional; the server default is used when absent
+        private Integer chunkSize;
+
+        @NotBlank(message = "Video title is required")
+        private String title;
+
+        @NotBlank(message = "Video description is required")
+        private String description;
+
+        @NotNull(message = "Order is required")
+        @Min(value = 1, message = "Order must be at least 1")
+        private Integer order;
+
+        @NotNull(message = "isPreview flag is required")
+        private Boolean isPreview;
+    }
+
+    /**
+     * Where a resumable upload stands; clients resume by sending the missing chunks
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UploadStatus {
+        private String uploadId;
+        private String status;
+        private long totalSize;
+        private int chunkSize;
+        private int totalChunks;
+        private long offset;          // Bytes received contiguously from the start
+        private List<Integer> missingChunks;
+        private String jobId;         // Set once the upload is complete and queued
+    }
 }
@@ -125,9 +125,7 @@ public class Activity {
         @Nullable
         private String passcode;     // Show only to enrolled user
         @Nullable
-        private List<Video> recordedVideos; // Show only to enrolled user
-        @Nullable
-        private Integer totalVideoCount;
+        private Integer totalVideoCount;     // Recorded videos live in course_videos; kept in step by VideoManagementService
         @Nullable
         private Integer totalVideoDuration;
         @Nullable
@@ -140,34 +138,6 @@ public class Activity {
         private Boolean subtitlesAvailable;  // Not Required
         @Nullable
         private List<String> languages;  // Not Required
-
-        @Data
-        @NoArgsConstructor
-        @AllArgsConstructor
-        @Builder
-        public static class Video {
-            private String videoId;
-            private String title;
-            private String description;
-            private Integer duration;
-            private String videoUrl;
-            @Nullable
-            private String thumbnailUrl;
-            private Integer order;
-            private Boolean isPreview;
-            @Nullable
-            private List<Resource> resources; // PDF/slides etc.
-
-            @Data
-            @NoArgsConstructor
-            @AllArgsConstructor
-            @Builder
-            public static class Resource {
-                private String type;
-                private String title;
-                private String url;
-            }
-        }
     }
 
     @Data
@@ -0,0 +1,56 @@
+package com.example.learnverse.activity.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.lang.Nullable;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A recorded lecture of an activity. Videos live here rather than inside the
+ * activity, which only keeps totalVideoCount/totalVideoDuration, so activity
+ * documents stay small however long the course gets. Indexes are created by
+ * CourseVideoIndexConfig.
+ */
+@Document(collection = "course_videos")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CourseVideo {
+    @Id
+    private String videoId;
+
+    private String activityId;
+    private String title;
+    private String description;
+    private Integer duration;
+    private String videoUrl;
+    @Nullable
+    private String thumbnailUrl;
+    private Integer order;
+    private Boolean isPreview;
+    @Nullable
+    private List<Resource> resources; // PDF/slides etc.
+    @Nullable
+    private String status;   // PROCESSING while uploading, then READY or FAILED; null = READY
+    @Nullable
+    private String jobId;    // Media job that uploads this video
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Resource {
+        private String type;
+        private String title;
+        private String url;
+    }
+}
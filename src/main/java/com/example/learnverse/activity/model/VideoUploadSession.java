@@ -0,0 +1,53 @@
+package com.example.learnverse.activity.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * A resumable video upload in progress. Chunks are spooled on disk; this document
+ * records which ones have arrived so a client can resume after a dropped connection.
+ */
+@Document(collection = "video_upload_sessions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class VideoUploadSession {
+
+    public enum Status { UPLOADING, COMPLETING, COMPLETED, ABORTED }
+
+    @Id
+    private String id;
+
+    private String activityId;
+    private String tutorId;
+
+    private String fileName;
+    private String contentType;
+    private long totalSize;
+    private int chunkSize;
+    private int totalChunks;
+
+    @Builder.Default
+    private Set<Integer> receivedChunks = new HashSet<>();
+
+    private Status status;
+    private String jobId;
+
+    // Video details applied when the upload completes
+    private String title;
+    private String description;
+    private Integer order;
+    private Boolean isPreview;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,104 @@
+package com.example.learnverse.activity.repository;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs while the context starts, before the web server takes traffic, so existing
+ * courses never show an empty video list while their embedded videos are being moved.
+ */
+@Component
+@Slf4j
+public class CourseVideoIndexConfig {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @PostConstruct
+    void init() {
+        createIndexes();
+        migrateEmbeddedVideos();
+    }
+
+    private void createIndexes() {
+        try {
+            // Ordered, paged lecture lists per activity (_id breaks ties between equal orders)
+            mongoTemplate.getCollection("course_videos").createIndex(
+                    new Document("activityId", 1).append("order", 1).append("_id", 1),
+                    new IndexOptions().name("activity_order")
+            );
+
+            log.info("Successfully created MongoDB indexes for course_videos");
+
+        } catch (Exception e) {
+            log.error("Error creating MongoDB indexes for course videos: ", e);
+        }
+    }
+
+    // Moves legacy videoContent.recordedVideos arrays into course_videos and drops them from the activity
+    private void migrateEmbeddedVideos() {
+        MongoCollection<Document> activities = mongoTemplate.getCollection("activities");
+        MongoCollection<Document> videos = mongoTemplate.getCollection("course_videos");
+        int migrated = 0;
+
+        try {
+            for (Document activity : activities.find(Filters.exists("videoContent.recordedVideos"))
+                    .projection(Projections.include("videoContent.recordedVideos"))) {
+                Object activityId = activity.get("_id");
+                List<Document> embedded = activity.get("videoContent", Document.class)
+                        .getList("recordedVideos", Document.class, List.of());
+
+                List<WriteModel<Document>> writes = new ArrayList<>();
+                int totalDuration = 0;
+                for (Document video : embedded) {
+                    Document copy = new Document(video);
+                    Object videoId = copy.remove("videoId");
+                    if (videoId == null) {
+                        continue;
+                    }
+                    copy.remove("_class");
+                    copy.put("activityId", activityId.toString());
+                    // Insert-only so a rerun never clobbers edits made since
+                    writes.add(new UpdateOneModel<>(Filters.eq("_id", videoId),
+                            new Document("$setOnInsert", copy),
+                            new UpdateOptions().upsert(true)));
+                    if (video.get("duration") instanceof Number duration) {
+                        totalDuration += duration.intValue();
+                    }
+                }
+
+                if (!writes.isEmpty()) {
+                    videos.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+                }
+                activities.updateOne(Filters.eq("_id", activityId), Updates.combine(
+                        Updates.unset("videoContent.recordedVideos"),
+                        Updates.set("videoContent.totalVideoCount", writes.size()),
+                        Updates.set("videoContent.totalVideoDuration", totalDuration)));
+                migrated++;
+            }
+
+            if (migrated > 0) {
+                log.info("Moved embedded videos of {} activities into course_videos", migrated);
+            }
+
+        } catch (Exception e) {
+            log.error("Error migrating embedded course videos: ", e);
+        }
+    }
+}
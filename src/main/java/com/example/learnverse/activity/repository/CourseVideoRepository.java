@@ -0,0 +1,22 @@
+package com.example.learnverse.activity.repository;
+
+import com.example.learnverse.activity.model.CourseVideo;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CourseVideoRepository extends MongoRepository<CourseVideo, String> {
+
+    Page<CourseVideo> findByActivityId(String activityId, Pageable pageable);
+
+    List<CourseVideo> findByActivityIdAndIsPreview(String activityId, Boolean isPreview, Sort sort);
+
+    long countByActivityId(String activityId);
+
+    void deleteByActivityId(String activityId);
+}
@@ -3,6 +3,7 @@ package com.example.learnverse.activity.service;
 import com.example.learnverse.activity.model.Activity;
 import com.example.learnverse.activity.nlp.QueryParser;
 import com.example.learnverse.activity.repository.ActivityRepository;
+import com.example.learnverse.activity.repository.CourseVideoRepository;
 import com.example.learnverse.activity.filter.ActivityFilterDto;
 import com.example.learnverse.auth.service.UserService;
 import com.example.learnverse.auth.user.AppUser;
@@ -43,6 +44,9 @@ public class ActivityService {
     @Autowired
     private ActivityRepository activityRepository;
 
+    @Autowired
+    private CourseVideoRepository courseVideoRepository;
+
     @Autowired
     private UserService userService;
 
@@ -288,12 +292,8 @@ public class ActivityService {
         // ✅ PRESERVE: Keep video content if not provided
         if (updatedActivity.getVideoContent() == null) {
             updatedActivity.setVideoContent(existingActivity.getVideoContent());
-        } else if (updatedActivity.getVideoContent().getRecordedVideos() == null &&
-                existingActivity.getVideoContent() != null) {
-            // Preserve existing videos if new request doesn't include them
-            updatedActivity.getVideoContent().setRecordedVideos(
-                    existingActivity.getVideoContent().getRecordedVideos()
-            );
+        } else if (existingActivity.getVideoContent() != null) {
+            // Video totals are auto-managed alongside course_videos
             updatedActivity.getVideoContent().setTotalVideoCount(
                     existingActivity.getVideoContent().getTotalVideoCount()
             );
@@ -344,8 +344,9 @@ public class ActivityService {
         Activity activity = activityRepository.findById(activityId)
                 .orElseThrow(() -> new RuntimeException("Activity not found with id: " + activityId));
 
-        // Delete the activity
+        // Delete the activity and its lectures
         activityRepository.deleteById(activityId);
+        courseVideoRepository.deleteByActivityId(activityId);
         log.info("Activity deleted successfully: {} by tutor: {}", activityId, activity.getTutorId());
     }
 
@@ -0,0 +1,388 @@
+package com.example.learnverse.activity.service;
+
+import com.example.learnverse.activity.dto.VideoDTO;
+import com.example.learnverse.activity.model.Activity;
+import com.example.learnverse.activity.model.VideoUploadSession;
+import com.example.learnverse.activity.repository.ActivityRepository;
+import com.example.learnverse.media.model.MediaJob;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Resumable video uploads: initiate, PUT numbered chunks (in any order, in parallel),
+ * query progress, complete. Each chunk is streamed straight into its own spool file
+ * through a FileChannel and verified against the client's SHA-256. Completion
+ * concatenates the chunks with FileChannel.transferTo and hands the file to the
+ * media pipeline like a regular upload.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ResumableVideoUploadService {
+
+    private static final int MIN_CHUNK_SIZE = 1024 * 1024;
+    private static final int MAX_CHUNK_SIZE = 64 * 1024 * 1024;
+
+    private final MongoTemplate mongoTemplate;
+    private final ActivityRepository activityRepository;
+    private final VideoManagementService videoManagementService;
+
+    @Value("${app.media.resumable.default-chunk-size:8388608}")
+    private int defaultChunkSize;
+
+    @Value("${app.media.resumable.max-size:2147483648}")
+    private long maxSize;
+
+    @Value("${app.media.resumable.expire-after-hours:24}")
+    private long expireAfterHours;
+
+    // A completion still running after this long is assumed lost with its node
+    @Value("${app.media.resumable.completing-timeout-minutes:30}")
+    private long completingTimeoutMinutes;
+
+    @Value("${app.media.upload.spool-dir:${java.io.tmpdir}/learnverse-uploads}")
+    private String spoolDir;
+
+    private Path resumableSpool;
+
+    @PostConstruct
+    void init() throws IOException {
+        resumableSpool = Files.createDirectories(Paths.get(spoolDir, "resumable"));
+    }
+
+    public VideoDTO.UploadStatus initiate(String activityId, String tutorId, VideoDTO.InitiateUploadRequest request)
+            throws IOException {
+        Activity activity = activityRepository.findById(activityId)
+                .orElseThrow(() -> new RuntimeException("Activity not found"));
+        if (!activity.getTutorId().equals(tutorId)) {
+            throw new RuntimeException("You can only manage videos for your own activities");
+        }
+        if (!request.getContentType().startsWith("video/")) {
+            throw new RuntimeException("File must be a video");
+        }
+        if (request.getTotalSize() > maxSize) {
+            throw new RuntimeException("Video exceeds the maximum upload size of " + maxSize + " bytes");
+        }
+
+        int chunkSize = request.getChunkSize() != null ? request.getChunkSize() : defaultChunkSize;
+        if (chunkSize < MIN_CHUNK_SIZE || chunkSize > MAX_CHUNK_SIZE) {
+            throw new RuntimeException("Chunk size must be between " + MIN_CHUNK_SIZE + " and " + MAX_CHUNK_SIZE + " bytes");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        VideoUploadSession session = VideoUploadSession.builder()
+                .id(new ObjectId().toHexString())
+                .activityId(activityId)
+                .tutorId(tutorId)
+                .fileName(request.getFileName())
+                .contentType(request.getContentType())
+                .totalSize(request.getTotalSize())
+                .chunkSize(chunkSize)
+                .totalChunks((int) ((request.getTotalSize() + chunkSize - 1) / chunkSize))
+                .status(VideoUploadSession.Status.UPLOADING)
+                .title(request.getTitle())
+                .description(request.getDescription())
+                .order(request.getOrder())
+                .isPreview(request.getIsPreview())
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        Files.createDirectories(sessionDir(session.getId()));
+        mongoTemplate.insert(session);
+
+        log.info("📤 Resumable upload {} started - {} chunks of {} bytes",
+                session.getId(), session.getTotalChunks(), chunkSize);
+        return toStatus(session);
+    }
+
+    /**
+     * Store one chunk. Re-sending a chunk that already arrived simply replaces it,
+     * so clients can retry blindly after a timeout.
+     *
+     * @param sha256 hex SHA-256 of the chunk body as computed by the client
+     */
+    public VideoDTO.UploadStatus uploadChunk(String activityId, String uploadId, String tutorId, int index,
+                                             String sha256, InputStream body) throws IOException {
+        VideoUploadSession session = getOwnedSession(activityId, uploadId, tutorId);
+        if (session.getStatus() != VideoUploadSession.Status.UPLOADING) {
+            throw new RuntimeException("Upload is " + session.getStatus().name().toLowerCase());
+        }
+        if (index < 0 || index >= session.getTotalChunks()) {
+            throw new RuntimeException("Chunk index out of range: " + index);
+        }
+        if (sha256 == null || sha256.isBlank()) {
+            throw new RuntimeException("Chunk checksum is required");
+        }
+
+        long expectedSize = expectedChunkSize(session, index);
+        Path dir = sessionDir(uploadId);
+        Path partial = Files.createTempFile(dir, "chunk-" + index + "-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            long written;
+            try (ReadableByteChannel source = Channels.newChannel(new DigestInputStream(body, digest));
+                 FileChannel target = FileChannel.open(partial, StandardOpenOption.WRITE)) {
+                // Read at most one byte more than expected, to detect oversized chunks without buffering them
+                written = transferFully(target, source, expectedSize + 1);
+            }
+
+            if (written != expectedSize) {
+                throw new RuntimeException("Chunk " + index + " should be " + expectedSize + " bytes, got " + written);
+            }
+            String actual = HexFormat.of().formatHex(digest.digest());
+            if (!actual.equalsIgnoreCase(sha256.trim())) {
+                throw new RuntimeException("Checksum mismatch for chunk " + index);
+            }
+
+            // Atomic rename, so a parallel retry of the same chunk never leaves a torn file
+            Files.move(partial, chunkPath(uploadId, index),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(partial);
+        }
+
+        VideoUploadSession updated = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(uploadId).and("status").is(VideoUploadSession.Status.UPLOADING)),
+                new Update().addToSet("receivedChunks", index).set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                VideoUploadSession.class);
+        if (updated == null) {
+            throw new RuntimeException("Upload is no longer accepting chunks");
+        }
+        return toStatus(updated);
+    }
+
+    public VideoDTO.UploadStatus getStatus(String activityId, String uploadId, String tutorId) {
+        return toStatus(getOwnedSession(activityId, uploadId, tutorId));
+    }
+
+    /**
+     * Assemble the chunks and queue the video for processing.
+     */
+    public VideoDTO.UploadStatus complete(String activityId, String uploadId, String tutorId) throws IOException {
+        VideoUploadSession session = getOwnedSession(activityId, uploadId, tutorId);
+        if (session.getStatus() == VideoUploadSession.Status.COMPLETED) {
+            return toStatus(session);
+        }
+        if (session.getReceivedChunks().size() != session.getTotalChunks()) {
+            throw new RuntimeException("Upload incomplete: missing chunks " + missingChunks(session));
+        }
+
+        // Only one completion may assemble the file
+        VideoUploadSession claimed = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(uploadId).and("status").is(VideoUploadSession.Status.UPLOADING)),
+                new Update().set("status", VideoUploadSession.Status.COMPLETING).set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                VideoUploadSession.class);
+        if (claimed == null) {
+            throw new RuntimeException("Upload is already being completed");
+        }
+
+        Path assembled = sessionDir(uploadId).resolve("assembled");
+        MediaJob job;
+        try {
+            assemble(claimed, assembled);
+
+            VideoDTO.UploadVideoRequest videoRequest = VideoDTO.UploadVideoRequest.builder()
+                    .title(claimed.getTitle())
+                    .description(claimed.getDescription())
+                    .order(claimed.getOrder())
+                    .isPreview(claimed.getIsPreview())
+                    .build();
+            job = videoManagementService.uploadAndAddVideo(claimed.getActivityId(), tutorId, videoRequest,
+                    assembled, claimed.getContentType(), claimed.getFileName());
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(assembled);
+            // Unless the expiry sweep has given up on this completion in the meantime
+            mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(uploadId).and("status").is(VideoUploadSession.Status.COMPLETING)),
+                    new Update().set("status", VideoUploadSession.Status.UPLOADING), VideoUploadSession.class);
+            throw e;
+        }
+
+        VideoUploadSession completed = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(uploadId)),
+                new Update()
+                        .set("status", VideoUploadSession.Status.COMPLETED)
+                        .set("jobId", job.getId())
+                        .set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                VideoUploadSession.class);
+        deleteSpool(uploadId);
+
+        log.info("✅ Resumable upload {} assembled and queued as media job {}", uploadId, job.getId());
+        return toStatus(completed);
+    }
+
+    public void abort(String activityId, String uploadId, String tutorId) throws IOException {
+        getOwnedSession(activityId, uploadId, tutorId);
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(uploadId).and("status").is(VideoUploadSession.Status.UPLOADING)),
+                new Update().set("status", VideoUploadSession.Status.ABORTED).set("updatedAt", LocalDateTime.now()),
+                VideoUploadSession.class);
+        deleteSpool(uploadId);
+    }
+
+    /**
+     * Drop spooled chunks of uploads nobody has touched for a while, and of completions
+     * that never finished (the node died while assembling or queueing the file).
+     */
+    @Scheduled(fixedDelayString = "${app.media.resumable.cleanup-interval-ms:3600000}")
+    public void expireAbandoned() {
+        LocalDateTime now = LocalDateTime.now();
+        expire(VideoUploadSession.Status.UPLOADING, now.minusHours(expireAfterHours));
+        expire(VideoUploadSession.Status.COMPLETING, now.minusMinutes(completingTimeoutMinutes));
+    }
+
+    private void expire(VideoUploadSession.Status status, LocalDateTime untouchedSince) {
+        Query stale = new Query(Criteria.where("status").is(status).and("updatedAt").lt(untouchedSince));
+        stale.fields().include("_id");
+        for (VideoUploadSession session : mongoTemplate.find(stale, VideoUploadSession.class)) {
+            try {
+                // Re-checked in the update, so a session that moved on since the query is left alone
+                long expired = mongoTemplate.updateFirst(
+                        new Query(Criteria.where("_id").is(session.getId())
+                                .and("status").is(status)
+                                .and("updatedAt").lt(untouchedSince)),
+                        new Update().set("status", VideoUploadSession.Status.ABORTED).set("updatedAt", LocalDateTime.now()),
+                        VideoUploadSession.class).getModifiedCount();
+                if (expired > 0) {
+                    deleteSpool(session.getId());
+                    log.info("🧹 Expired {} upload {}", status.name().toLowerCase(), session.getId());
+                }
+            } catch (Exception e) {
+                log.warn("⚠️ Failed to expire upload {}: {}", session.getId(), e.getMessage());
+            }
+        }
+    }
+
+    // Zero-copy concatenation: the kernel moves chunk bytes straight into the output file
+    private void assemble(VideoUploadSession session, Path target) throws IOException {
+        try (FileChannel out = FileChannel.open(target,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            for (int index = 0; index < session.getTotalChunks(); index++) {
+                try (FileChannel in = FileChannel.open(chunkPath(session.getId(), index), StandardOpenOption.READ)) {
+                    long size = in.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            }
+            if (out.size() != session.getTotalSize()) {
+                throw new IOException("Assembled size " + out.size() + " does not match declared size " + session.getTotalSize());
+            }
+        }
+    }
+
+    private long transferFully(FileChannel target, ReadableByteChannel source, long maxBytes) throws IOException {
+        long position = 0;
+        while (position < maxBytes) {
+            long transferred = target.transferFrom(source, position, maxBytes - position);
+            if (transferred <= 0) {
+                break;
+            }
+            position += transferred;
+        }
+        return position;
+    }
+
+    private VideoUploadSession getOwnedSession(String activityId, String uploadId, String tutorId) {
+        VideoUploadSession session = mongoTemplate.findById(uploadId, VideoUploadSession.class);
+        if (session == null || !session.getTutorId().equals(tutorId) || !session.getActivityId().equals(activityId)) {
+            throw new RuntimeException("Upload not found");
+        }
+        return session;
+    }
+
+    private long expectedChunkSize(VideoUploadSession session, int index) {
+        long start = (long) index * session.getChunkSize();
+        return Math.min(session.getChunkSize(), session.getTotalSize() - start);
+    }
+
+    private VideoDTO.UploadStatus toStatus(VideoUploadSession session) {
+        long offset = 0;
+        for (int index = 0; index < session.getTotalChunks() && session.getReceivedChunks().contains(index); index++) {
+            offset += expectedChunkSize(session, index);
+        }
+        return VideoDTO.UploadStatus.builder()
+                .uploadId(session.getId())
+                .status(session.getStatus().name())
+                .totalSize(session.getTotalSize())
+                .chunkSize(session.getChunkSize())
+                .totalChunks(session.getTotalChunks())
+                .offset(offset)
+                .missingChunks(missingChunks(session))
+                .jobId(session.getJobId())
+                .build();
+    }
+
+    private List<Integer> missingChunks(VideoUploadSession session) {
+        List<Integer> missing = new ArrayList<>();
+        for (int index = 0; index < session.getTotalChunks(); index++) {
+            if (!session.getReceivedChunks().contains(index)) {
+                missing.add(index);
+            }
+        }
+        return missing;
+    }
+
+    private Path sessionDir(String uploadId) {
+        return resumableSpool.resolve(uploadId);
+    }
+
+    private Path chunkPath(String uploadId, int index) {
+        return sessionDir(uploadId).resolve("chunk-" + index);
+    }
+
+    private void deleteSpool(String uploadId) throws IOException {
+        Path dir = sessionDir(uploadId);
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
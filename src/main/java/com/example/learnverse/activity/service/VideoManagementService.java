@@ -2,109 +2,160 @@ package com.example.learnverse.activity.service;
 
 import com.example.learnverse.activity.dto.VideoDTO;
 import com.example.learnverse.activity.model.Activity;
-import com.example.learnverse.activity.repository.ActivityRepository;
-import com.example.learnverse.community.cloudinary.CloudinaryService;
+import com.example.learnverse.activity.model.CourseVideo;
+import com.example.learnverse.activity.repository.CourseVideoRepository;
+import com.example.learnverse.media.model.MediaJob;
+import com.example.learnverse.media.service.MediaPipelineService;
+import com.example.learnverse.media.store.MediaSpec;
+import com.example.learnverse.media.store.MediaStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class VideoManagementService {
 
-    private final ActivityRepository activityRepository;
-    private final CloudinaryService cloudinaryService;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final CourseVideoRepository courseVideoRepository;
+    private final MediaStore mediaStore;
+    private final MediaPipelineService mediaPipelineService;
+    private final MongoTemplate mongoTemplate;
 
     /**
-     * Verify tutor owns the activity
+     * Add a placeholder video and queue the file for upload; the media pipeline fills in
+     * URL, thumbnail and duration and notifies the tutor when it is done.
      */
-    private Activity verifyOwnership(String activityId, String tutorId) {
-        Activity activity = activityRepository.findById(activityId)
-                .orElseThrow(() -> new RuntimeException("Activity not found"));
-
-        if (!activity.getTutorId().equals(tutorId)) {
-            throw new RuntimeException("You can only manage videos for your own activities");
-        }
-
-        return activity;
+    public MediaJob uploadAndAddVideo(
+            String activityId,
+            String tutorId,
+            VideoDTO.UploadVideoRequest request,
+            MultipartFile videoFile) throws IOException {
+        return queueVideo(activityId, tutorId, request, videoId ->
+                mediaPipelineService.submit(MediaJob.Kind.VIDEO, tutorId, activityId, videoId, videoFile));
     }
 
     /**
-     * Upload video file and add to activity
+     * Same as above for a file already assembled on local disk (resumable uploads); the file is moved, not copied.
      */
-    @Transactional
-    public Activity uploadAndAddVideo(
+    public MediaJob uploadAndAddVideo(
             String activityId,
             String tutorId,
             VideoDTO.UploadVideoRequest request,
-            MultipartFile videoFile) throws IOException {
+            Path videoFile,
+            String contentType,
+            String fileName) throws IOException {
+        return queueVideo(activityId, tutorId, request, videoId ->
+                mediaPipelineService.submit(MediaJob.Kind.VIDEO, tutorId, activityId, videoId, videoFile, contentType, fileName));
+    }
 
-        Activity activity = verifyOwnership(activityId, tutorId);
 
-        // Upload to Cloudinary - BOTH duration and thumbnail auto-extracted
-        CloudinaryService.VideoUploadResult uploadResult =
-                cloudinaryService.uploadVideo(videoFile, activityId);
+    private MediaJob queueVideo(
+            String activityId,
+            String tutorId,
+            VideoDTO.UploadVideoRequest request,
+            VideoJobSubmission submission) throws IOException {
 
-        // Initialize collections
-        if (activity.getVideoContent() == null) {
-            activity.setVideoContent(new Activity.VideoContent());
-        }
-        if (activity.getVideoContent().getRecordedVideos() == null) {
-            activity.getVideoContent().setRecordedVideos(new ArrayList<>());
-        }
+        requireOwnActivity(activityId, tutorId);
 
-        // Create video with AUTO-GENERATED values
-        Activity.VideoContent.Video newVideo = Activity.VideoContent.Video.builder()
+        CourseVideo newVideo = CourseVideo.builder()
                 .videoId(UUID.randomUUID().toString())
+                .activityId(activityId)
                 .title(request.getTitle())
                 .description(request.getDescription())
-                .duration(uploadResult.getDurationMinutes() != null
-                        ? uploadResult.getDurationMinutes()
-                        : 0) // ✅ Auto-detected
-                .videoUrl(uploadResult.getVideoUrl())
-                .thumbnailUrl(uploadResult.getThumbnailUrl()) // ✅ Auto-generated!
+                .duration(0) // Filled in once the media store reports it
                 .order(request.getOrder())
                 .isPreview(request.getIsPreview())
                 .resources(new ArrayList<>())
+                .status("PROCESSING")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
                 .build();
 
-        activity.getVideoContent().getRecordedVideos().add(newVideo);
-        updateVideoStats(activity);
+        insertVideo(newVideo);
 
-        Activity saved = activityRepository.save(activity);
-        log.info("✅ Video uploaded - Duration: {} mins, Thumbnail: {}",
-                newVideo.getDuration(), newVideo.getThumbnailUrl());
+        MediaJob job;
+        try {
+            job = submission.submit(newVideo.getVideoId());
+        } catch (IOException e) {
+            removeVideo(activityId, newVideo.getVideoId());
+            throw e;
+        }
 
-        return saved;
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(newVideo.getVideoId())),
+                new Update().set("jobId", job.getId()),
+                CourseVideo.class);
+
+        log.info("📥 Video {} queued for upload as job {}", newVideo.getVideoId(), job.getId());
+        return job;
     }
+
+    @FunctionalInterface
+    private interface VideoJobSubmission {
+        MediaJob submit(String videoId) throws IOException;
+    }
+
     /**
-     * Add video with existing URL (manual)
+     * One page of an activity's videos in lecture order
      */
-    @Transactional
-    public Activity addVideo(String activityId, String tutorId, VideoDTO.AddVideoRequest request) {
-        log.info("🎥 Adding video to activity: {} by tutor: {}", activityId, tutorId);
+    public Page<CourseVideo> getVideos(String activityId, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return courseVideoRepository.findByActivityId(activityId,
+                PageRequest.of(Math.max(0, page), pageSize, Sort.by("order", "videoId")));
+    }
 
-        Activity activity = verifyOwnership(activityId, tutorId);
+    public Page<CourseVideo> getVideosForTutor(String activityId, String tutorId, int page, int size) {
+        requireOwnActivity(activityId, tutorId);
+        return getVideos(activityId, page, size);
+    }
 
-        if (activity.getVideoContent() == null) {
-            activity.setVideoContent(new Activity.VideoContent());
-        }
+    /**
+     * Free preview lectures shown on the public activity page
+     */
+    public List<CourseVideo> getPreviewVideos(String activityId) {
+        return courseVideoRepository.findByActivityIdAndIsPreview(activityId, true, Sort.by("order", "videoId"));
+    }
 
-        if (activity.getVideoContent().getRecordedVideos() == null) {
-            activity.getVideoContent().setRecordedVideos(new ArrayList<>());
-        }
+    /**
+     * Add video with existing URL (manual)
+     */
+    public CourseVideo addVideo(String activityId, String tutorId, VideoDTO.AddVideoRequest request) {
+        log.info("🎥 Adding video to activity: {} by tutor: {}", activityId, tutorId);
+
+        requireOwnActivity(activityId, tutorId);
 
-        Activity.VideoContent.Video newVideo = Activity.VideoContent.Video.builder()
+        CourseVideo newVideo = CourseVideo.builder()
                 .videoId(UUID.randomUUID().toString())
+                .activityId(activityId)
                 .title(request.getTitle())
                 .description(request.getDescription())
                 .duration(0)
@@ -113,121 +164,109 @@ public class VideoManagementService {
                 .order(request.getOrder())
                 .isPreview(request.getIsPreview())
                 .resources(convertResources(request.getResources()))
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
                 .build();
 
-        activity.getVideoContent().getRecordedVideos().add(newVideo);
-        updateVideoStats(activity);
-
-        Activity saved = activityRepository.save(activity);
+        insertVideo(newVideo);
         log.info("✅ Video added: {}", newVideo.getVideoId());
 
-        return saved;
+        return newVideo;
     }
 
     /**
      * Update existing video
      */
-    @Transactional
-    public Activity updateVideo(String activityId, String videoId, String tutorId, VideoDTO.UpdateVideoRequest request) {
+    public CourseVideo updateVideo(String activityId, String videoId, String tutorId, VideoDTO.UpdateVideoRequest request) {
         log.info("✏️ Updating video: {} in activity: {}", videoId, activityId);
 
-        Activity activity = verifyOwnership(activityId, tutorId);
-
-        if (activity.getVideoContent() == null || activity.getVideoContent().getRecordedVideos() == null) {
-            throw new RuntimeException("No videos found in this activity");
+        requireOwnActivity(activityId, tutorId);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<CourseVideo.Resource> resources = convertResources(request.getResources());
+
+        Update update = new Update().set("updatedAt", now);
+        if (request.getTitle() != null) update.set("title", request.getTitle());
+        if (request.getDescription() != null) update.set("description", request.getDescription());
+        if (request.getDuration() != null) update.set("duration", request.getDuration());
+        if (request.getVideoUrl() != null) update.set("videoUrl", request.getVideoUrl());
+        if (request.getThumbnailUrl() != null) update.set("thumbnailUrl", request.getThumbnailUrl());
+        if (request.getOrder() != null) update.set("order", request.getOrder());
+        if (request.getIsPreview() != null) update.set("isPreview", request.getIsPreview());
+        if (resources != null) update.set("resources", resources);
+
+        // The previous version tells how far the activity's total duration has to move
+        CourseVideo previous = mongoTemplate.findAndModify(videoQuery(activityId, videoId), update,
+                FindAndModifyOptions.options().returnNew(false), CourseVideo.class);
+        if (previous == null) {
+            throw new RuntimeException("Video not found");
         }
 
-        Activity.VideoContent.Video video = activity.getVideoContent().getRecordedVideos().stream()
-                .filter(v -> v.getVideoId().equals(videoId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Video not found"));
-
-        // Update fields
-        if (request.getTitle() != null) video.setTitle(request.getTitle());
-        if (request.getDescription() != null) video.setDescription(request.getDescription());
-        if (request.getDuration() != null) video.setDuration(request.getDuration());
-        if (request.getVideoUrl() != null) video.setVideoUrl(request.getVideoUrl());
-        if (request.getThumbnailUrl() != null) video.setThumbnailUrl(request.getThumbnailUrl());
-        if (request.getOrder() != null) video.setOrder(request.getOrder());
-        if (request.getIsPreview() != null) video.setIsPreview(request.getIsPreview());
-        if (request.getResources() != null) video.setResources(convertResources(request.getResources()));
-
-        updateVideoStats(activity);
-
-        Activity saved = activityRepository.save(activity);
+        if (request.getDuration() != null) {
+            int delta = request.getDuration() - durationOf(previous);
+            if (delta != 0) {
+                adjustTotals(activityId, 0, delta);
+            }
+        }
         log.info("✅ Video updated: {}", videoId);
 
-        return saved;
+        // Our update applied to the previous version; reading the video back would cost a
+        // round trip and could return a later writer's state
+        if (request.getTitle() != null) previous.setTitle(request.getTitle());
+        if (request.getDescription() != null) previous.setDescription(request.getDescription());
+        if (request.getDuration() != null) previous.setDuration(request.getDuration());
+        if (request.getVideoUrl() != null) previous.setVideoUrl(request.getVideoUrl());
+        if (request.getThumbnailUrl() != null) previous.setThumbnailUrl(request.getThumbnailUrl());
+        if (request.getOrder() != null) previous.setOrder(request.getOrder());
+        if (request.getIsPreview() != null) previous.setIsPreview(request.getIsPreview());
+        if (resources != null) previous.setResources(resources);
+        previous.setUpdatedAt(now);
+        return previous;
     }
 
     /**
      * Delete video
      */
-    @Transactional
-    public Activity deleteVideo(String activityId, String videoId, String tutorId) throws IOException {
+    public CourseVideo deleteVideo(String activityId, String videoId, String tutorId) throws IOException {
         log.info("🗑️ Deleting video: {} from activity: {}", videoId, activityId);
 
-        Activity activity = verifyOwnership(activityId, tutorId);
+        requireOwnActivity(activityId, tutorId);
 
-        if (activity.getVideoContent() == null || activity.getVideoContent().getRecordedVideos() == null) {
-            throw new RuntimeException("No videos found in this activity");
+        CourseVideo videoToDelete = mongoTemplate.findAndRemove(videoQuery(activityId, videoId), CourseVideo.class);
+        if (videoToDelete == null) {
+            throw new RuntimeException("Video not found");
         }
+        adjustTotals(activityId, -1, -durationOf(videoToDelete));
 
-        Activity.VideoContent.Video videoToDelete = activity.getVideoContent().getRecordedVideos().stream()
-                .filter(v -> v.getVideoId().equals(videoId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Video not found"));
-
-        // Try to delete from Cloudinary
-        String publicId = extractPublicIdFromUrl(videoToDelete.getVideoUrl());
-        if (publicId != null) {
-            try {
-                cloudinaryService.deleteVideo(publicId);
-            } catch (Exception e) {
-                log.warn("⚠️ Failed to delete from Cloudinary: {}", e.getMessage());
-            }
+        // Try to delete the stored file (none yet while still processing)
+        try {
+            mediaStore.delete(videoToDelete.getVideoUrl());
+        } catch (Exception e) {
+            log.warn("⚠️ Failed to delete stored video: {}", e.getMessage());
         }
 
-        activity.getVideoContent().getRecordedVideos().remove(videoToDelete);
-        updateVideoStats(activity);
-
-        Activity saved = activityRepository.save(activity);
         log.info("✅ Video deleted: {}", videoId);
-
-        return saved;
+        return videoToDelete;
     }
 
     /**
      * Add resource to video
      */
-    @Transactional
-    public Activity addResourceToVideo(String activityId, String videoId, String tutorId, VideoDTO.AddResourceRequest request) {
+    public CourseVideo addResourceToVideo(String activityId, String videoId, String tutorId, VideoDTO.AddResourceRequest request) {
         log.info("📎 Adding resource to video: {}", videoId);
 
-        Activity activity = verifyOwnership(activityId, tutorId);
-
-        if (activity.getVideoContent() == null || activity.getVideoContent().getRecordedVideos() == null) {
-            throw new RuntimeException("No videos found");
-        }
-
-        Activity.VideoContent.Video video = activity.getVideoContent().getRecordedVideos().stream()
-                .filter(v -> v.getVideoId().equals(videoId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Video not found"));
-
-        if (video.getResources() == null) {
-            video.setResources(new ArrayList<>());
-        }
+        requireOwnActivity(activityId, tutorId);
 
-        Activity.VideoContent.Video.Resource newResource = Activity.VideoContent.Video.Resource.builder()
+        CourseVideo.Resource newResource = CourseVideo.Resource.builder()
                 .type(request.getType())
                 .title(request.getTitle())
                 .url(request.getUrl())
                 .build();
 
-        video.getResources().add(newResource);
-
-        Activity saved = activityRepository.save(activity);
+        CourseVideo saved = pushResource(activityId, videoId, newResource);
+        if (saved == null) {
+            throw new RuntimeException("Video not found");
+        }
         log.info("✅ Resource added");
 
         return saved;
@@ -236,8 +275,7 @@ public class VideoManagementService {
     /**
      * Upload resource file
      */
-    @Transactional
-    public Activity uploadResourceToVideo(
+    public CourseVideo uploadResourceToVideo(
             String activityId,
             String videoId,
             String tutorId,
@@ -247,32 +285,28 @@ public class VideoManagementService {
 
         log.info("📎 Uploading resource to video: {}", videoId);
 
-        Activity activity = verifyOwnership(activityId, tutorId);
+        requireOwnActivity(activityId, tutorId);
 
-        if (activity.getVideoContent() == null || activity.getVideoContent().getRecordedVideos() == null) {
-            throw new RuntimeException("No videos found");
+        // Check before uploading so a bad request doesn't leave an orphaned file
+        if (!mongoTemplate.exists(videoQuery(activityId, videoId), CourseVideo.class)) {
+            throw new RuntimeException("Video not found");
         }
 
-        Activity.VideoContent.Video video = activity.getVideoContent().getRecordedVideos().stream()
-                .filter(v -> v.getVideoId().equals(videoId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Video not found"));
-
-        String resourceUrl = cloudinaryService.uploadResource(resourceFile, activityId, resourceType);
+        String resourceUrl = mediaStore.store(resourceFile,
+                MediaSpec.auto("learnverse/resources/" + activityId + "/" + resourceType)).url();
 
-        if (video.getResources() == null) {
-            video.setResources(new ArrayList<>());
-        }
-
-        Activity.VideoContent.Video.Resource newResource = Activity.VideoContent.Video.Resource.builder()
+        CourseVideo.Resource newResource = CourseVideo.Resource.builder()
                 .type(resourceType)
                 .title(resourceTitle)
                 .url(resourceUrl)
                 .build();
 
-        video.getResources().add(newResource);
-
-        Activity saved = activityRepository.save(activity);
+        CourseVideo saved = pushResource(activityId, videoId, newResource);
+        if (saved == null) {
+            // Video was deleted while the file was uploading
+            mediaStore.delete(resourceUrl);
+            throw new RuntimeException("Video not found");
+        }
         log.info("✅ Resource uploaded");
 
         return saved;
@@ -281,132 +315,188 @@ public class VideoManagementService {
     /**
      * Delete resource by URL
      */
-    @Transactional
-    public Activity deleteResourceByUrl(String activityId, String videoId, String resourceUrl, String tutorId) {
+    public CourseVideo deleteResourceByUrl(String activityId, String videoId, String resourceUrl, String tutorId) {
         log.info("🗑️ Deleting resource with URL: {} from video: {}", resourceUrl, videoId);
 
-        Activity activity = verifyOwnership(activityId, tutorId);
+        requireOwnActivity(activityId, tutorId);
 
-        if (activity.getVideoContent() == null || activity.getVideoContent().getRecordedVideos() == null) {
-            throw new RuntimeException("No videos found");
-        }
-
-        // Find video
-        Activity.VideoContent.Video video = activity.getVideoContent().getRecordedVideos().stream()
-                .filter(v -> v.getVideoId().equals(videoId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Video not found"));
+        CourseVideo saved = mongoTemplate.findAndModify(
+                videoQuery(activityId, videoId).addCriteria(Criteria.where("resources.url").is(resourceUrl)),
+                new Update()
+                        .pull("resources", new Document("url", resourceUrl))
+                        .set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                CourseVideo.class);
 
-        if (video.getResources() == null || video.getResources().isEmpty()) {
-            throw new RuntimeException("No resources found");
+        if (saved == null) {
+            throw mongoTemplate.exists(videoQuery(activityId, videoId), CourseVideo.class)
+                    ? new RuntimeException("Resource not found with URL: " + resourceUrl)
+                    : new RuntimeException("Video not found");
         }
-
-        // Find and remove resource by URL
-        boolean removed = video.getResources().removeIf(r -> r.getUrl().equals(resourceUrl));
-
-        if (!removed) {
-            throw new RuntimeException("Resource not found with URL: " + resourceUrl);
-        }
-
-        Activity saved = activityRepository.save(activity);
         log.info("✅ Resource deleted");
 
         return saved;
     }
 
     /**
-     * Reorder videos
+     * Reorder videos; the list must name every video of the activity exactly once
      */
-    @Transactional
-    public Activity reorderVideos(String activityId, String tutorId, List<String> videoIds) {
+    public void reorderVideos(String activityId, String tutorId, List<String> videoIds) {
         log.info("🔄 Reordering videos");
 
-        Activity activity = verifyOwnership(activityId, tutorId);
+        requireOwnActivity(activityId, tutorId);
 
-        if (activity.getVideoContent() == null || activity.getVideoContent().getRecordedVideos() == null) {
-            throw new RuntimeException("No videos found");
+        if (new HashSet<>(videoIds).size() != videoIds.size()) {
+            throw new RuntimeException("Duplicate video ids");
         }
-
-        List<Activity.VideoContent.Video> currentVideos = activity.getVideoContent().getRecordedVideos();
-
-        if (videoIds.size() != currentVideos.size()) {
+        long matching = mongoTemplate.count(
+                new Query(Criteria.where("activityId").is(activityId).and("_id").in(videoIds)), CourseVideo.class);
+        if (matching != videoIds.size() || courseVideoRepository.countByActivityId(activityId) != videoIds.size()) {
             throw new RuntimeException("Video count mismatch");
         }
 
-        List<Activity.VideoContent.Video> reorderedVideos = new ArrayList<>();
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CourseVideo.class);
         for (int i = 0; i < videoIds.size(); i++) {
-            String videoId = videoIds.get(i);
-            Activity.VideoContent.Video video = currentVideos.stream()
-                    .filter(v -> v.getVideoId().equals(videoId))
-                    .findFirst()
-                    .orElseThrow(() -> new RuntimeException("Video not found: " + videoId));
-
-            video.setOrder(i + 1);
-            reorderedVideos.add(video);
+            bulk.updateOne(videoQuery(activityId, videoIds.get(i)),
+                    new Update().set("order", i + 1).set("updatedAt", LocalDateTime.now()));
         }
+        bulk.execute();
+        log.info("✅ Videos reordered");
+    }
 
-        activity.getVideoContent().setRecordedVideos(reorderedVideos);
+    private void insertVideo(CourseVideo video) {
+        courseVideoRepository.insert(video);
+        adjustTotals(video.getActivityId(), 1, durationOf(video));
+    }
 
-        Activity saved = activityRepository.save(activity);
-        log.info("✅ Videos reordered");
+    // Removal is atomic, so only the caller that actually deleted the video adjusts the totals
+    private void removeVideo(String activityId, String videoId) {
+        CourseVideo removed = mongoTemplate.findAndRemove(videoQuery(activityId, videoId), CourseVideo.class);
+        if (removed != null) {
+            adjustTotals(activityId, -1, -durationOf(removed));
+        }
+    }
 
-        return saved;
+    // null when the video does not belong to the activity
+    private CourseVideo pushResource(String activityId, String videoId, CourseVideo.Resource resource) {
+        return mongoTemplate.findAndModify(
+                videoQuery(activityId, videoId),
+                new Update()
+                        .push("resources", resource)
+                        .set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                CourseVideo.class);
     }
 
     /**
-     * Auto-calculate video stats
+     * Keep the activity's video totals in step with course_videos. Videos and totals live in
+     * different documents, so this is a second write; {@link #reconcileTotals()} repairs any drift.
      */
-    private void updateVideoStats(Activity activity) {
-        if (activity.getVideoContent() == null) return;
+    private Activity adjustTotals(String activityId, int count, int duration) {
+        Activity activity = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(activityId)),
+                new Update()
+                        .inc("videoContent.totalVideoCount", count)
+                        .inc("videoContent.totalVideoDuration", duration),
+                FindAndModifyOptions.options().returnNew(true),
+                Activity.class);
+
+        if (activity != null && activity.getVideoContent() != null) {
+            log.info("📊 Video stats - Count: {}, Duration: {} mins",
+                    activity.getVideoContent().getTotalVideoCount(), activity.getVideoContent().getTotalVideoDuration());
+        }
+        return activity;
+    }
 
-        List<Activity.VideoContent.Video> videos = activity.getVideoContent().getRecordedVideos();
+    /**
+     * Recount every activity's video totals from course_videos and rewrite only the ones
+     * that drifted, e.g. after a failure between a video write and its totals update.
+     * Runs shortly after startup and then on a fixed delay. A video added mid-run may be
+     * overwritten by the recount; the next run picks it up.
+     */
+    @Scheduled(
+            initialDelayString = "${app.activity.video-totals.reconcile-initial-delay-ms:60000}",
+            fixedDelayString = "${app.activity.video-totals.reconcile-interval-ms:3600000}")
+    public void reconcileTotals() {
+        try {
+            Map<String, int[]> actual = new HashMap<>();
+            Aggregation aggregation = Aggregation.newAggregation(
+                    Aggregation.group("activityId").count().as("count").sum("duration").as("duration"));
+            mongoTemplate.aggregate(aggregation, CourseVideo.class, Document.class)
+                    .forEach(row -> actual.put(row.getString("_id"),
+                            new int[]{number(row, "count"), number(row, "duration")}));
+
+            Query activities = new Query();
+            activities.fields().include("videoContent.totalVideoCount", "videoContent.totalVideoDuration");
+
+            BulkOperations fixes = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Activity.class);
+            int corrected = 0;
+            try (Stream<Activity> stored = mongoTemplate.stream(activities, Activity.class)) {
+                for (Iterator<Activity> it = stored.iterator(); it.hasNext(); ) {
+                    Activity activity = it.next();
+                    int[] totals = actual.getOrDefault(activity.getId(), new int[2]);
+                    Activity.VideoContent content = activity.getVideoContent();
+                    int count = content != null && content.getTotalVideoCount() != null ? content.getTotalVideoCount() : 0;
+                    int duration = content != null && content.getTotalVideoDuration() != null ? content.getTotalVideoDuration() : 0;
+                    if (count != totals[0] || duration != totals[1]) {
+                        fixes.updateOne(new Query(Criteria.where("_id").is(activity.getId())), new Update()
+                                .set("videoContent.totalVideoCount", totals[0])
+                                .set("videoContent.totalVideoDuration", totals[1]));
+                        corrected++;
+                    }
+                }
+            }
 
-        if (videos == null || videos.isEmpty()) {
-            activity.getVideoContent().setTotalVideoCount(0);
-            activity.getVideoContent().setTotalVideoDuration(0);
-            return;
+            if (corrected > 0) {
+                fixes.execute();
+            }
+            log.info("✅ Video totals reconciled: {} activities corrected", corrected);
+        } catch (Exception e) {
+            log.error("❌ Video totals reconciliation failed: {}", e.getMessage());
         }
+    }
 
-        int count = videos.size();
-        int totalDuration = videos.stream()
-                .mapToInt(Activity.VideoContent.Video::getDuration)
-                .sum();
+    private int number(Document doc, String field) {
+        Object value = doc.get(field);
+        return value instanceof Number n ? n.intValue() : 0;
+    }
 
-        activity.getVideoContent().setTotalVideoCount(count);
-        activity.getVideoContent().setTotalVideoDuration(totalDuration);
+    private Query videoQuery(String activityId, String videoId) {
+        return new Query(Criteria.where("_id").is(videoId).and("activityId").is(activityId));
+    }
 
-        log.info("📊 Video stats - Count: {}, Duration: {} mins", count, totalDuration);
+    private int durationOf(CourseVideo video) {
+        return video.getDuration() != null ? video.getDuration() : 0;
+    }
+
+    /**
+     * Verify tutor owns the activity (reads only its tutorId)
+     */
+    private void requireOwnActivity(String activityId, String tutorId) {
+        Query query = new Query(Criteria.where("_id").is(activityId));
+        query.fields().include("tutorId");
+        Activity activity = mongoTemplate.findOne(query, Activity.class);
+
+        if (activity == null) {
+            throw new RuntimeException("Activity not found");
+        }
+        if (!tutorId.equals(activity.getTutorId())) {
+            throw new RuntimeException("You can only manage videos for your own activities");
+        }
     }
 
     /**
      * Convert DTO resources to model
      */
-    private List<Activity.VideoContent.Video.Resource> convertResources(List<VideoDTO.ResourceRequest> requests) {
+    private List<CourseVideo.Resource> convertResources(List<VideoDTO.ResourceRequest> requests) {
         if (requests == null) return null;
 
         return requests.stream()
-                .map(r -> Activity.VideoContent.Video.Resource.builder()
+                .map(r -> CourseVideo.Resource.builder()
                         .type(r.getType())
                         .title(r.getTitle())
                         .url(r.getUrl())
                         .build())
                 .collect(Collectors.toList());
     }
-
-    /**
-     * Extract Cloudinary public_id from URL
-     */
-    private String extractPublicIdFromUrl(String url) {
-        try {
-            String[] parts = url.split("/upload/");
-            if (parts.length < 2) return null;
-
-            String afterUpload = parts[1];
-            String withoutVersion = afterUpload.replaceFirst("v\\d+/", "");
-            return withoutVersion.replaceFirst("\\.[^.]+$", "");
-        } catch (Exception e) {
-            log.error("Failed to extract public_id: {}", url);
-            return null;
-        }
-    }
 }
@@ -0,0 +1,81 @@
+package com.example.learnverse.activity.service;
+
+import com.example.learnverse.activity.model.Activity;
+import com.example.learnverse.activity.model.CourseVideo;
+import com.example.learnverse.media.model.MediaJob;
+import com.example.learnverse.media.service.MediaJobHandler;
+import com.example.learnverse.media.store.MediaSpec;
+import com.example.learnverse.media.store.MediaStore;
+import com.example.learnverse.media.store.StoredMedia;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * Uploads a queued lesson video, fills in its placeholder in course_videos
+ * (URL, thumbnail, duration) and adds the duration to the activity's total.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class VideoUploadJobHandler implements MediaJobHandler {
+
+    private final MediaStore mediaStore;
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public MediaJob.Kind kind() {
+        return MediaJob.Kind.VIDEO;
+    }
+
+    @Override
+    public String process(MediaJob job, Path file) throws Exception {
+        StoredMedia result = mediaStore.store(file, MediaSpec.video("learnverse/videos/" + job.getTargetId())
+                .from(job.getOriginalFilename()));
+        int duration = result.durationSeconds();
+
+        // Only a still-processing placeholder is filled in, so a retried job cannot double-count duration
+        UpdateResult update = mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(job.getItemId())
+                        .and("activityId").is(job.getTargetId())
+                        .and("status").is("PROCESSING")),
+                new Update()
+                        .set("videoUrl", result.url())
+                        .set("thumbnailUrl", result.thumbnailUrl())
+                        .set("duration", duration)
+                        .set("status", "READY")
+                        .set("updatedAt", LocalDateTime.now()),
+                CourseVideo.class);
+
+        if (update.getModifiedCount() == 0) {
+            // Video (or its activity) was deleted while uploading
+            log.info("Video {} gone before its upload finished; discarding", job.getItemId());
+            mediaStore.delete(result.url());
+        } else {
+            mongoTemplate.updateFirst(
+                    new Query(Criteria.where("_id").is(job.getTargetId())),
+                    new Update().inc("videoContent.totalVideoDuration", duration),
+                    Activity.class);
+            log.info("✅ Video uploaded - Duration: {} mins, Thumbnail: {}", duration, result.thumbnailUrl());
+        }
+        return result.url();
+    }
+
+    @Override
+    public void onDeadLetter(MediaJob job) {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(job.getItemId()).and("status").is("PROCESSING")),
+                new Update()
+                        .set("status", "FAILED")
+                        .set("updatedAt", LocalDateTime.now()),
+                CourseVideo.class);
+    }
+}
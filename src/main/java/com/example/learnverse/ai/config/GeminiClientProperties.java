@@ -0,0 +1,45 @@
+package com.example.learnverse.ai.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "gemini.client")
+@Validated
+public class GeminiClientProperties {
+
+    @Min(value = 1, message = "Gemini pool needs at least one connection")
+    private int maxConnections = 50;
+
+    // Requests allowed to wait for a free connection before failing fast
+    @Min(value = 1, message = "Pending acquire queue must hold at least one request")
+    private int pendingAcquireMaxCount = 200;
+
+    @NotNull
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+    @NotNull
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    @NotNull
+    private Duration maxLifeTime = Duration.ofMinutes(5);
+
+    @NotNull
+    private Duration evictionInterval = Duration.ofSeconds(30);
+
+    @NotNull
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    // Max silence between streamed chunks, not the total stream duration
+    @NotNull
+    private Duration responseTimeout = Duration.ofSeconds(60);
+
+    private boolean http2 = true;
+
+    private int maxInMemorySize = 2 * 1024 * 1024;
+}
@@ -0,0 +1,167 @@
+package com.example.learnverse.ai.service;
+
+import com.example.learnverse.activity.model.Activity;
+import com.example.learnverse.auth.user.UserProfile;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Sits in front of {@link GeminiService} and replays answers to near-duplicate
+ * questions from users with the same profile and the same matched courses.
+ * Concurrent misses on the same key share a single Gemini stream.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AIResponseCache {
+
+    // Only courtesy words are dropped; interrogatives and verbs carry the intent of the question
+    private static final Set<String> POLITENESS_WORDS = Set.of(
+            "please", "pls", "plz", "kindly", "thanks", "thank", "thx", "hi", "hello", "hey"
+    );
+
+    private final GeminiService geminiService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${learning-assistant.response-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${learning-assistant.response-cache.max-entries:2000}")
+    private long maxEntries;
+
+    @Value("${learning-assistant.response-cache.ttl:6h}")
+    private Duration ttl;
+
+    @Value("${learning-assistant.response-cache.max-answer-chars:20000}")
+    private int maxAnswerChars;
+
+    private Cache<Key, List<String>> answers;
+
+    // Gemini streams currently filling a key; later misses replay the same stream
+    private final Map<Key, Flux<String>> inFlight = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        answers = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, answers, "ai-response");
+    }
+
+    public Key keyFor(String question, UserProfile profile, List<Activity> courses) {
+        String courseIds = courses == null ? "" : courses.stream()
+                .map(Activity::getId)
+                .filter(Objects::nonNull)
+                .sorted()
+                .collect(Collectors.joining(","));
+        return new Key(normalize(question), profileFingerprint(profile), courseIds);
+    }
+
+    /**
+     * Replays a cached answer, or streams from Gemini and caches the chunks once
+     * the stream completes cleanly. Failed or cancelled streams are never cached.
+     */
+    public Flux<String> stream(Key key, Supplier<String> prompt) {
+        if (!enabled || key.question().isEmpty()) {
+            return geminiService.streamFromGemini(prompt.get());
+        }
+
+        List<String> cached = answers.getIfPresent(key);
+        if (cached != null) {
+            log.debug("💾 Cache hit for question: {}", key.question());
+            return Flux.fromIterable(cached);
+        }
+
+        return inFlight.computeIfAbsent(key, k -> sharedStream(k, prompt))
+                .onErrorResume(error -> Flux.just(GeminiService.FALLBACK_MESSAGE));
+    }
+
+    /**
+     * One upstream call replayed to every subscriber. It is cancelled only when all of
+     * them have gone, and leaves the in-flight map when it finishes in any way.
+     */
+    private Flux<String> sharedStream(Key key, Supplier<String> prompt) {
+        AtomicReference<Flux<String>> self = new AtomicReference<>();
+        Flux<String> shared = Flux.defer(() -> {
+                    List<String> chunks = new ArrayList<>();
+                    int[] size = new int[1];
+                    return geminiService.streamChunks(prompt.get())
+                            .doOnNext(chunk -> {
+                                size[0] += chunk.length();
+                                if (size[0] <= maxAnswerChars) {
+                                    chunks.add(chunk);
+                                }
+                            })
+                            .doOnComplete(() -> {
+                                if (!chunks.isEmpty() && size[0] <= maxAnswerChars) {
+                                    answers.put(key, List.copyOf(chunks));
+                                }
+                            });
+                })
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .replay()
+                .refCount();
+        self.set(shared);
+        return shared;
+    }
+
+    static String normalize(String question) {
+        if (question == null) {
+            return "";
+        }
+        return Arrays.stream(question.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}+#]+"))
+                .filter(word -> !word.isEmpty() && !POLITENESS_WORDS.contains(word))
+                .collect(Collectors.joining(" "));
+    }
+
+    private static String profileFingerprint(UserProfile profile) {
+        if (profile == null) {
+            return "";
+        }
+        return String.join("|",
+                Objects.toString(profile.getCareerGoal(), "").toLowerCase(Locale.ROOT),
+                Objects.toString(profile.getCurrentFocusArea(), "").toLowerCase(Locale.ROOT),
+                sortedLower(profile.getInterests()),
+                sortedLower(profile.getTargetSkills()));
+    }
+
+    private static String sortedLower(List<String> values) {
+        if (values == null) {
+            return "";
+        }
+        Set<String> sorted = new TreeSet<>();
+        for (String value : values) {
+            if (value != null) {
+                sorted.add(value.toLowerCase(Locale.ROOT));
+            }
+        }
+        return String.join(",", sorted);
+    }
+
+    public record Key(String question, String profile, String courses) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.learnverse.ai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps concurrent Gemini streams globally and per user. Admission never blocks:
+ * callers that can't get a slot are rejected and told so over SSE.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ChatAdmissionService {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${learning-assistant.chat.max-concurrent-streams:64}")
+    private int maxConcurrentStreams;
+
+    @Value("${learning-assistant.chat.max-streams-per-user:2}")
+    private int maxStreamsPerUser;
+
+    private Semaphore globalSlots;
+    private final ConcurrentHashMap<String, AtomicInteger> userStreams = new ConcurrentHashMap<>();
+
+    private Counter admitted;
+    private Counter rejectedGlobal;
+    private Counter rejectedUser;
+
+    @PostConstruct
+    void init() {
+        globalSlots = new Semaphore(maxConcurrentStreams);
+        admitted = meterRegistry.counter("learnverse.ai.chat.admission", "result", "admitted");
+        rejectedGlobal = meterRegistry.counter("learnverse.ai.chat.admission", "result", "rejected_global");
+        rejectedUser = meterRegistry.counter("learnverse.ai.chat.admission", "result", "rejected_user");
+        Gauge.builder("learnverse.ai.chat.active", globalSlots, s -> maxConcurrentStreams - s.availablePermits())
+                .description("Gemini chat streams currently in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return a permit to release when the stream terminates, or null if the request is rejected
+     */
+    public Permit tryAcquire(String userId) {
+        // Counting inside compute keeps increment and entry cleanup atomic per user
+        int[] userCount = new int[1];
+        userStreams.compute(userId, (k, v) -> {
+            AtomicInteger count = v == null ? new AtomicInteger() : v;
+            userCount[0] = count.incrementAndGet();
+            return count;
+        });
+        if (userCount[0] > maxStreamsPerUser) {
+            releaseUser(userId);
+            rejectedUser.increment();
+            log.debug("Chat rejected for user {}: per-user limit {}", userId, maxStreamsPerUser);
+            return null;
+        }
+
+        if (!globalSlots.tryAcquire()) {
+            releaseUser(userId);
+            rejectedGlobal.increment();
+            log.warn("⚠️ Chat rejected for user {}: {} streams already active", userId, maxConcurrentStreams);
+            return null;
+        }
+
+        admitted.increment();
+        return new Permit(userId);
+    }
+
+    private void releaseUser(String userId) {
+        userStreams.computeIfPresent(userId, (k, v) -> v.decrementAndGet() <= 0 ? null : v);
+    }
+
+    public class Permit {
+        private final String userId;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Permit(String userId) {
+            this.userId = userId;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                globalSlots.release();
+                releaseUser(userId);
+            }
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.example.learnverse.ai.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
@@ -21,40 +27,61 @@ public class GeminiService {
     @Value("${gemini.api.base-url:https://generativelanguage.googleapis.com/v1beta}")
     private String baseUrl;
 
+    public static final String FALLBACK_MESSAGE = "I'm having trouble right now. Please try again! 🤔";
+
+    private static final Map<String, Object> GENERATION_CONFIG = Map.of(
+            "temperature", 0.7,
+            "topK", 40,
+            "topP", 0.95,
+            "maxOutputTokens", 2048
+    );
+
     private final WebClient webClient;
-    private final ObjectMapper objectMapper;
+    private final JsonFactory jsonFactory;
+
+    // Built once; the key and model don't change at runtime
+    private URI streamUri;
+
+    public GeminiService(@Qualifier("geminiWebClient") WebClient webClient, ObjectMapper objectMapper) {
+        this.webClient = webClient;
+        this.jsonFactory = objectMapper.getFactory();
+    }
 
-    public GeminiService() {
-        this.webClient = WebClient.builder()
-                .codecs(configurer -> configurer.defaultCodecs().maxInMemorySize(2 * 1024 * 1024))
-                .build();
-        this.objectMapper = new ObjectMapper();
+    @PostConstruct
+    void initStreamUri() {
+        this.streamUri = URI.create(baseUrl + "/models/gemini-2.0-flash-exp:streamGenerateContent?alt=sse&key=" + apiKey);
     }
 
     public Flux<String> streamFromGemini(String prompt) {
-        String url = baseUrl + "/models/gemini-2.0-flash-exp:streamGenerateContent?alt=sse&key=" + apiKey;
+        return streamChunks(prompt)
+                .onErrorResume(error -> Flux.just(FALLBACK_MESSAGE));
+    }
 
+    /**
+     * Same stream as {@link #streamFromGemini(String)} but lets errors through,
+     * for callers that must tell a real answer apart from the fallback text.
+     */
+    public Flux<String> streamChunks(String prompt) {
         Map<String, Object> requestBody = Map.of(
                 "contents", List.of(Map.of(
                         "parts", List.of(Map.of("text", prompt))
                 )),
-                "generationConfig", Map.of(
-                        "temperature", 0.7,
-                        "topK", 40,
-                        "topP", 0.95,
-                        "maxOutputTokens", 2048
-                )
+                "generationConfig", GENERATION_CONFIG
         );
 
-        log.info("🚀 Calling Gemini API");
+        log.debug("🚀 Calling Gemini API");
 
         return webClient.post()
-                .uri(url)
+                .uri(streamUri)
                 .header("Content-Type", "application/json")
                 .bodyValue(requestBody)
                 .retrieve()
                 .bodyToFlux(String.class)
-                .doOnNext(line -> log.info("📨 Raw: {}", line.substring(0, Math.min(100, line.length()))))
+                .doOnNext(line -> {
+                    if (log.isTraceEnabled()) {
+                        log.trace("Raw: {}", abbreviate(line, 100));
+                    }
+                })
                 // ✅ HANDLE BOTH FORMATS: "data: {...}" AND pure "{...}"
                 .map(line -> {
                     if (line.startsWith("data: ")) {
@@ -63,37 +90,54 @@ public class GeminiService {
                     return line.trim();
                 })
                 .filter(data -> !data.isEmpty() && !data.equals("[DONE]"))
-                .doOnNext(data -> log.info("📦 Processing: {}", data.substring(0, Math.min(100, data.length()))))
                 .mapNotNull(this::extractTextChunk)
-                .doOnNext(chunk -> log.info("📤 Sending chunk: {} chars", chunk.length()))
-                .doOnComplete(() -> log.info("✅ Streaming completed"))
-                .doOnError(error -> log.error("❌ Streaming error: {}", error.getMessage(), error))
-                .onErrorResume(error -> Flux.just("I'm having trouble right now. Please try again! 🤔"));
+                .doOnNext(chunk -> log.trace("Sending chunk: {} chars", chunk.length()))
+                .doOnComplete(() -> log.debug("✅ Streaming completed"))
+                .doOnError(error -> log.error("❌ Streaming error: {}", error.getMessage(), error));
     }
 
-    private String extractTextChunk(String jsonData) {
-        try {
-            JsonNode root = objectMapper.readTree(jsonData);
-            JsonNode textNode = root.path("candidates").path(0)
-                    .path("content").path("parts").path(0).path("text");
-
-            if (textNode.isMissingNode()) {
-                log.warn("⚠️ No text in JSON: {}", jsonData.substring(0, Math.min(200, jsonData.length())));
+    /**
+     * Walks candidates[0].content.parts[0].text with a streaming parser, skipping
+     * every other subtree instead of materialising a JsonNode tree per SSE event.
+     */
+    String extractTextChunk(String jsonData) {
+        try (JsonParser parser = jsonFactory.createParser(jsonData)) {
+            String text = parser.nextToken() == JsonToken.START_OBJECT
+                    && seekField(parser, "candidates") && parser.nextToken() == JsonToken.START_ARRAY
+                    && parser.nextToken() == JsonToken.START_OBJECT
+                    && seekField(parser, "content") && parser.nextToken() == JsonToken.START_OBJECT
+                    && seekField(parser, "parts") && parser.nextToken() == JsonToken.START_ARRAY
+                    && parser.nextToken() == JsonToken.START_OBJECT
+                    && seekField(parser, "text") && parser.nextToken() == JsonToken.VALUE_STRING
+                    ? parser.getText()
+                    : null;
+
+            if (text == null) {
+                log.debug("No text in chunk: {}", abbreviate(jsonData, 200));
                 return null;
             }
 
-            String text = textNode.asText();
-
-            if (text != null && !text.isEmpty()) {
-                log.info("✅ Extracted {} chars", text.length());
-                return text;
-            }
-
-            return null;
-        } catch (Exception e) {
+            return text.isEmpty() ? null : text;
+        } catch (IOException e) {
             log.error("❌ Parse error: {}", e.getMessage());
-            log.error("Data: {}", jsonData);
+            log.debug("Data: {}", jsonData);
             return null;
         }
     }
-}
\ No newline at end of file
+
+    // Leaves the parser on the named field of the current object, skipping siblings
+    private static boolean seekField(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            if (name.equals(parser.currentName())) {
+                return true;
+            }
+            parser.nextToken();
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    private static String abbreviate(String value, int max) {
+        return value.length() <= max ? value : value.substring(0, max);
+    }
+}
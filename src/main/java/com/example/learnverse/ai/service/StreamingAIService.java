@@ -4,14 +4,21 @@ package com.example.learnverse.ai.service;
 import com.example.learnverse.activity.model.Activity;
 import com.example.learnverse.auth.user.AppUser;
 import com.example.learnverse.auth.user.UserProfile;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -20,11 +27,82 @@ public class StreamingAIService {
 
     private final ConversationMemoryService conversationMemory;
     private final CourseMatchingService courseMatchingService;
-    private final GeminiService geminiService;
+    private final AIResponseCache responseCache;
+    private final ChatAdmissionService admissionService;
 
-    private final ConcurrentHashMap<String, StringBuilder> responseBuffers = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Formatting rules never change between turns, so they are built once.
+     */
+    private static final String STATIC_PREAMBLE = """
+            You are LearnVerse AI, a natural conversational learning assistant.
+
+            CRITICAL FORMATTING RULES:
+
+            1. Headings:
+               Format: **Heading Text:**
+               - On its own line
+               - Add blank line after
+
+            2. Bullet Points:
+               Format: *   Bullet text
+               - Start with * and THREE spaces
+               - Each on new line
+
+            3. Bold Text:
+               Format: **word**
+               - Only for emphasis
+               - Not for entire sentences
+
+            EXAMPLE FORMAT:
+            **Android Development:**
+
+            *   Learn **Kotlin** programming language
+            *   Build simple apps for practice
+            *   Study **UI design** principles
+
+            """;
+
+    private static final String COURSES_HEADER = "AVAILABLE COURSES:\n";
+    private static final String HISTORY_HEADER = "RECENT CONVERSATION:\n";
+    private static final String RESPONSE_MARKER = "RESPONSE (use markdown formatting):\n";
+
+    @Value("${learning-assistant.prompt.max-chars:6000}")
+    private int maxPromptChars;
+
+    @Value("${learning-assistant.prompt.history-messages:6}")
+    private int historyMessages;
+
+    @Value("${learning-assistant.chat.stream-prefetch:16}")
+    private int streamPrefetch;
+
+    private DistributionSummary promptSize;
+
+    @PostConstruct
+    void initMetrics() {
+        promptSize = DistributionSummary.builder("learnverse.ai.prompt.size")
+                .description("Characters sent to Gemini per chat turn")
+                .baseUnit("chars")
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry);
+    }
 
     public Flux<ServerSentEvent<String>> streamResponse(String userMessage, AppUser user) {
+        // Deferred so the permit is only taken once somebody actually subscribes
+        return Flux.defer(() -> {
+            ChatAdmissionService.Permit permit = admissionService.tryAcquire(user.getId());
+            if (permit == null) {
+                return Flux.just(ServerSentEvent.<String>builder()
+                        .event("rejected")
+                        .data("I'm helping a lot of learners right now. Please try again in a moment! 🙏")
+                        .build());
+            }
+            return streamAdmitted(userMessage, user).doFinally(signal -> permit.release());
+        });
+    }
+
+    private Flux<ServerSentEvent<String>> streamAdmitted(String userMessage, AppUser user) {
         String userId = user.getId();
 
         conversationMemory.addMessage(userId, "user", userMessage);
@@ -33,109 +111,119 @@ public class StreamingAIService {
 
         List<Activity> relevantCourses = courseMatchingService.getRelevantCourses(user, userMessage, 6);
 
-        String prompt = buildContextualPrompt(userMessage, user, history, relevantCourses);
+        AIResponseCache.Key cacheKey = responseCache.keyFor(userMessage, user.getProfile(), relevantCourses);
 
-        responseBuffers.put(userId, new StringBuilder());
+        // ✅ One buffer per request, so parallel chats from the same user don't collide
+        StringBuilder responseBuffer = new StringBuilder();
 
         log.info("🤖 Streaming for user: {}", user.getName());
 
-        return geminiService.streamFromGemini(prompt)
+        // limitRate keeps upstream demand tied to what the SSE writer has actually sent
+        return responseCache.stream(cacheKey,
+                        () -> buildContextualPrompt(userMessage, user, history, relevantCourses))
+                .limitRate(streamPrefetch)
                 .map(chunk -> {
-                    responseBuffers.get(userId).append(chunk);
+                    responseBuffer.append(chunk);
                     return ServerSentEvent.<String>builder().data(chunk).build();
                 })
                 .doOnComplete(() -> {
-                    String completeResponse = responseBuffers.get(userId).toString();
-                    conversationMemory.addMessage(userId, "assistant", completeResponse);
-                    responseBuffers.remove(userId);
+                    conversationMemory.addMessage(userId, "assistant", responseBuffer.toString());
                     log.info("✅ Completed for user: {}", user.getName());
                 })
-                .doOnError(error -> {
-                    log.error("❌ Error: {}", error.getMessage());
-                    responseBuffers.remove(userId);
-                });
+                .doOnError(error -> log.error("❌ Error: {}", error.getMessage()));
     }
 
     private String buildContextualPrompt(String userMessage, AppUser user,
                                          List<ConversationMemoryService.Message> history,
                                          List<Activity> courses) {
-        StringBuilder prompt = new StringBuilder();
-
-        prompt.append("You are LearnVerse AI, a natural conversational learning assistant.\n\n");
-
-        prompt.append("You are LearnVerse AI, a natural conversational learning assistant.\n\n");
+        String profileSection = buildProfileSection(user.getProfile());
+        String questionSection = "USER QUESTION: " + userMessage + "\n\n" + RESPONSE_MARKER;
 
-        // ✅ FORMATTING RULES
-        prompt.append("CRITICAL FORMATTING RULES:\n\n");
-        prompt.append("1. Headings:\n");
-        prompt.append("   Format: **Heading Text:**\n");
-        prompt.append("   - On its own line\n");
-        prompt.append("   - Add blank line after\n\n");
+        List<String> courseLines = new ArrayList<>();
+        if (courses != null) {
+            for (Activity course : courses) {
+                StringBuilder line = new StringBuilder("• ").append(course.getTitle());
+                if (course.getPricing() != null && course.getPricing().getPrice() != null) {
+                    line.append(" - ₹").append(course.getPricing().getPrice());
+                }
+                courseLines.add(line.append("\n").toString());
+            }
+        }
 
-        prompt.append("2. Bullet Points:\n");
-        prompt.append("   Format: *   Bullet text\n");
-        prompt.append("   - Start with * and THREE spaces\n");
-        prompt.append("   - Each on new line\n\n");
+        Deque<String> historyLines = new ArrayDeque<>();
+        int startIdx = Math.max(0, history.size() - historyMessages);
+        for (int i = startIdx; i < history.size(); i++) {
+            ConversationMemoryService.Message msg = history.get(i);
+            historyLines.addLast((msg.getRole().equalsIgnoreCase("user") ? "USER" : "AI")
+                    + ": " + msg.getContent() + "\n");
+        }
 
-        prompt.append("3. Bold Text:\n");
-        prompt.append("   Format: **word**\n");
-        prompt.append("   - Only for emphasis\n");
-        prompt.append("   - Not for entire sentences\n\n");
+        // ✅ Budget: drop oldest history first, then the lowest-ranked courses
+        int fixedSize = STATIC_PREAMBLE.length() + profileSection.length() + questionSection.length();
+        int historySize = sectionSize(HISTORY_HEADER, historyLines);
+        int courseSize = sectionSize(COURSES_HEADER, courseLines);
 
-        prompt.append("EXAMPLE FORMAT:\n");
-        prompt.append("**Android Development:**\n\n");
-        prompt.append("*   Learn **Kotlin** programming language\n");
-        prompt.append("*   Build simple apps for practice\n");
-        prompt.append("*   Study **UI design** principles\n\n");
+        while (fixedSize + historySize + courseSize > maxPromptChars && !historyLines.isEmpty()) {
+            historyLines.removeFirst();
+            historySize = sectionSize(HISTORY_HEADER, historyLines);
+        }
+        while (fixedSize + historySize + courseSize > maxPromptChars && !courseLines.isEmpty()) {
+            courseLines.remove(courseLines.size() - 1);
+            courseSize = sectionSize(COURSES_HEADER, courseLines);
+        }
 
+        StringBuilder prompt = new StringBuilder(fixedSize + historySize + courseSize)
+                .append(STATIC_PREAMBLE)
+                .append(profileSection);
+        appendSection(prompt, COURSES_HEADER, courseLines);
+        appendSection(prompt, HISTORY_HEADER, historyLines);
+        prompt.append(questionSection);
 
+        promptSize.record(prompt.length());
+        if (prompt.length() > maxPromptChars) {
+            log.debug("Prompt exceeds budget after trimming: {} > {} chars", prompt.length(), maxPromptChars);
+        }
 
+        return prompt.toString();
+    }
 
-        prompt.append("STUDENT PROFILE:\n");
-        UserProfile profile = user.getProfile();
+    private String buildProfileSection(UserProfile profile) {
+        StringBuilder section = new StringBuilder("STUDENT PROFILE:\n");
 
         if (profile != null) {
             if (profile.getCareerGoal() != null && !profile.getCareerGoal().isEmpty()) {
-                prompt.append("• Career Goal: ").append(profile.getCareerGoal()).append("\n");
+                section.append("• Career Goal: ").append(profile.getCareerGoal()).append("\n");
             }
             if (profile.getCurrentFocusArea() != null) {
-                prompt.append("• Current Focus: ").append(profile.getCurrentFocusArea()).append("\n");
+                section.append("• Current Focus: ").append(profile.getCurrentFocusArea()).append("\n");
             }
             if (profile.getInterests() != null && !profile.getInterests().isEmpty()) {
-                prompt.append("• Interests: ").append(String.join(", ", profile.getInterests())).append("\n");
+                section.append("• Interests: ").append(String.join(", ", profile.getInterests())).append("\n");
             }
             if (profile.getTargetSkills() != null && !profile.getTargetSkills().isEmpty()) {
-                prompt.append("• Target Skills: ").append(String.join(", ", profile.getTargetSkills())).append("\n");
+                section.append("• Target Skills: ").append(String.join(", ", profile.getTargetSkills())).append("\n");
             }
         }
-        prompt.append("\n");
+        return section.append("\n").toString();
+    }
 
-        if (courses != null && !courses.isEmpty()) {
-            prompt.append("AVAILABLE COURSES:\n");
-            for (Activity course : courses) {
-                prompt.append("• ").append(course.getTitle());
-                if (course.getPricing() != null && course.getPricing().getPrice() != null) {
-                    prompt.append(" - ₹").append(course.getPricing().getPrice());
-                }
-                prompt.append("\n");
-            }
-            prompt.append("\n");
+    private static int sectionSize(String header, Collection<String> lines) {
+        if (lines.isEmpty()) {
+            return 0;
         }
-
-        if (!history.isEmpty()) {
-            prompt.append("RECENT CONVERSATION:\n");
-            int startIdx = Math.max(0, history.size() - 6); // Only last 6 messages
-            for (int i = startIdx; i < history.size(); i++) {
-                ConversationMemoryService.Message msg = history.get(i);
-                prompt.append(msg.getRole().equalsIgnoreCase("user") ? "USER" : "AI");
-                prompt.append(": ").append(msg.getContent()).append("\n");
-            }
-            prompt.append("\n");
+        int size = header.length() + 1;
+        for (String line : lines) {
+            size += line.length();
         }
+        return size;
+    }
 
-        prompt.append("USER QUESTION: ").append(userMessage).append("\n\n");
-        prompt.append("RESPONSE (use markdown formatting):\n");
-
-        return prompt.toString();
+    private static void appendSection(StringBuilder prompt, String header, Collection<String> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        prompt.append(header);
+        lines.forEach(prompt::append);
+        prompt.append("\n");
     }
-}
\ No newline at end of file
+}
@@ -57,6 +57,8 @@ public class SecurityConfig {
                 // ADMIN ENDPOINTS
                 .requestMatchers("/api/tutor-verification/admin/**").hasRole("ADMIN")
                 .requestMatchers("/api/files/**").hasRole("ADMIN")
+                .requestMatchers("/api/media/jobs/admin/**").hasRole("ADMIN")
+                .requestMatchers("/api/media/files/learnverse/tutor-verification/**").hasRole("ADMIN")
 
                 // USER-only endpoints
                 .requestMatchers(HttpMethod.POST, "/api/tutor-verification/register").hasRole("USER")
@@ -65,6 +67,12 @@ public class SecurityConfig {
                 // WebSocket
                 .requestMatchers("/ws/community").hasAnyRole("USER", "TUTOR", "ADMIN")
 
+                // Media job status
+                .requestMatchers(HttpMethod.GET, "/api/media/jobs/*").hasAnyRole("USER", "TUTOR", "ADMIN")
+
+                // Locally stored media (app.media.store=local)
+                .requestMatchers(HttpMethod.GET, "/api/media/files/**").hasAnyRole("USER", "TUTOR", "ADMIN")
+
                 // Community follow system
                 .requestMatchers(HttpMethod.POST, "/api/community/follow/*").hasAnyRole("USER", "TUTOR", "ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/community/follow/*").hasAnyRole("USER", "TUTOR", "ADMIN")
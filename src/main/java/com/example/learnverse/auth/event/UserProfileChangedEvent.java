@@ -0,0 +1,16 @@
+package com.example.learnverse.auth.event;
+
+/**
+ * Published whenever a user's public identity (name, role or profile picture) changes.
+ * Either field may be null when the publisher only knows one of them.
+ */
+public record UserProfileChangedEvent(String userId, String email) {
+
+    public static UserProfileChangedEvent ofUser(String userId) {
+        return new UserProfileChangedEvent(userId, null);
+    }
+
+    public static UserProfileChangedEvent ofEmail(String email) {
+        return new UserProfileChangedEvent(null, email);
+    }
+}
@@ -8,11 +8,13 @@ import com.example.learnverse.auth.refresh.RefreshToken;
 import com.example.learnverse.auth.refresh.RefreshTokenService;
 import com.example.learnverse.auth.refresh.dto.TokenRefreshRequest;
 import com.example.learnverse.auth.user.AppUser;
+import com.example.learnverse.auth.event.UserProfileChangedEvent;
 import com.example.learnverse.auth.modelenum.Role;
 import com.example.learnverse.auth.repo.UserRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -26,6 +28,7 @@ import java.util.Map;
 public class AuthService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final RefreshTokenService refreshTokenService;
@@ -167,7 +170,9 @@ public class AuthService {
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
         user.setRole(Role.TUTOR);
-        return userRepository.save(user);
+        AppUser saved = userRepository.save(user);
+        eventPublisher.publishEvent(UserProfileChangedEvent.ofUser(userId));
+        return saved;
     }
 
     public AppUser getUserByEmail(String email) {
@@ -1,11 +1,13 @@
 package com.example.learnverse.auth.service;
 
 import com.example.learnverse.auth.dto.ProfileSetupRequest;
+import com.example.learnverse.auth.event.UserProfileChangedEvent;
 import com.example.learnverse.auth.repo.UserRepository;
 import com.example.learnverse.auth.user.AppUser;
 import com.example.learnverse.auth.user.UserProfile;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -17,6 +19,7 @@ import java.util.List;
 public class UserProfileService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AppUser setupUserProfile(String userId, ProfileSetupRequest request) {
         try {
@@ -52,6 +55,7 @@ public class UserProfileService {
             user.setInterests(request.getInterests());
 
             userRepository.save(user);
+            eventPublisher.publishEvent(UserProfileChangedEvent.ofUser(userId));
 
             log.info("✅ Profile setup completed for user: {}", user.getName());
             return user;
@@ -1,9 +1,11 @@
 package com.example.learnverse.auth.service;
 
+import com.example.learnverse.auth.event.UserProfileChangedEvent;
 import com.example.learnverse.auth.modelenum.Role;
 import com.example.learnverse.auth.repo.UserRepository;
 import com.example.learnverse.auth.user.AppUser;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -17,6 +19,7 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Get user by ID
@@ -40,7 +43,9 @@ public class UserService {
     public AppUser upgradeUserToTutor(String userId) {
         AppUser user = getUserById(userId);
         user.setRole(Role.TUTOR);
-        return userRepository.save(user);
+        AppUser saved = userRepository.save(user);
+        eventPublisher.publishEvent(UserProfileChangedEvent.ofUser(userId));
+        return saved;
     }
 
     /**
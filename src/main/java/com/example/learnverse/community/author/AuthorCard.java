@@ -0,0 +1,11 @@
+package com.example.learnverse.community.author;
+
+/**
+ * The slice of a user that posts and comments denormalize: who wrote it and how to show them.
+ */
+public record AuthorCard(
+        String userId,
+        String name,
+        String role,
+        String profilePicture
+) {}
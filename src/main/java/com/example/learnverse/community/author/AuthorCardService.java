@@ -0,0 +1,86 @@
+package com.example.learnverse.community.author;
+
+import com.example.learnverse.auth.event.UserProfileChangedEvent;
+import com.example.learnverse.auth.repo.UserRepository;
+import com.example.learnverse.auth.service.UserService;
+import com.example.learnverse.auth.user.AppUser;
+import com.example.learnverse.tutor.model.TutorVerification;
+import com.example.learnverse.tutor.repo.TutorVerificationRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Caches the author snapshot stamped onto posts and comments, so writing one
+ * does not cost a user lookup plus a tutor-verification lookup every time.
+ * Entries are dropped when the profile changes and expire after a TTL as a backstop
+ * (covers changes made on other nodes).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AuthorCardService {
+
+    private final UserService userService;
+    private final UserRepository userRepository;
+    private final TutorVerificationRepository tutorVerificationRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.community.author-cache.max-entries:50000}")
+    private long maxEntries;
+
+    @Value("${app.community.author-cache.ttl:30m}")
+    private Duration ttl;
+
+    private Cache<String, AuthorCard> cards;
+
+    @PostConstruct
+    void init() {
+        cards = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cards, "author-cards");
+    }
+
+    public AuthorCard get(String userId) {
+        return cards.get(userId, this::load);
+    }
+
+    @EventListener
+    public void onProfileChanged(UserProfileChangedEvent event) {
+        if (event.userId() != null) {
+            cards.invalidate(event.userId());
+        }
+        if (event.email() != null) {
+            userRepository.findByEmail(event.email())
+                    .ifPresent(user -> cards.invalidate(user.getId()));
+        }
+        log.debug("Author card invalidated for {}", event);
+    }
+
+    private AuthorCard load(String userId) {
+        AppUser user = userService.getUserById(userId);
+        return new AuthorCard(user.getId(), user.getName(), user.getRole().toString(), profilePicture(user));
+    }
+
+    private String profilePicture(AppUser user) {
+        // Only tutors have a profile picture, stored with their verification
+        if (!"TUTOR".equals(user.getRole().toString())) {
+            return null;
+        }
+        return tutorVerificationRepository.findByEmail(user.getEmail())
+                .map(TutorVerification::getProfilePicturePath)
+                .orElse(null);
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.learnverse.community.controller;
 
+import com.example.learnverse.community.dto.ReactionResponse;
 import com.example.learnverse.community.model.Post;
+import com.example.learnverse.community.model.PostComment;
+import com.example.learnverse.community.service.PostSearchService;
 import com.example.learnverse.community.service.PostService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
@@ -10,6 +13,10 @@ import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @RestController
 @RequestMapping("/api/community/posts")
 public class PostController {
@@ -17,6 +24,9 @@ public class PostController {
     @Autowired
     private PostService postService;
 
+    @Autowired
+    private PostSearchService postSearchService;
+
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     // @RequireApprovedTutor  // Use your existing annotation or remove for all users
     public ResponseEntity<Post> createPost(
@@ -58,8 +68,9 @@ public class PostController {
     @GetMapping("/feed")
     public ResponseEntity<Page<Post>> getFeed(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        Page<Post> posts = postService.getFeedPosts(page, size);
+            @RequestParam(defaultValue = "10") int size,
+            Authentication auth) {
+        Page<Post> posts = postService.getFeedPosts(auth.getName(), page, size);
         return ResponseEntity.ok(posts);
     }
 
@@ -68,20 +79,43 @@ public class PostController {
     public ResponseEntity<Page<Post>> getUserPosts(
             @PathVariable String userId,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        Page<Post> posts = postService.getUserPosts(userId, page, size);
+            @RequestParam(defaultValue = "10") int size,
+            Authentication auth) {
+        Page<Post> posts = postService.getUserPosts(userId, auth.getName(), page, size);
         return ResponseEntity.ok(posts);
     }
 
+    // Full-text search; follow nextCursor for more results
+    @GetMapping("/search")
+    public ResponseEntity<?> searchPosts(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            Authentication auth) {
+        try {
+            return ResponseEntity.ok(postSearchService.search(query, cursor, size, auth.getName()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // Which of the given posts the caller has liked/shared
+    @GetMapping("/reactions")
+    public ResponseEntity<Map<String, Set<String>>> getMyReactions(
+            @RequestParam List<String> postIds,
+            Authentication auth) {
+        return ResponseEntity.ok(postService.getViewerReactions(auth.getName(), postIds));
+    }
+
     // Like/Unlike post
     @PostMapping("/{postId}/like")
-    public ResponseEntity<Post> toggleLike(
+    public ResponseEntity<ReactionResponse> toggleLike(
             @PathVariable String postId,
             Authentication auth) {
         try {
             String userId = auth.getName();
-            Post post = postService.toggleLike(postId, userId);
-            return ResponseEntity.ok(post);
+            ReactionResponse reaction = postService.toggleLike(postId, userId);
+            return ResponseEntity.ok(reaction);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -89,13 +123,13 @@ public class PostController {
 
     // Share post
     @PostMapping("/{postId}/share")
-    public ResponseEntity<Post> sharePost(
+    public ResponseEntity<ReactionResponse> sharePost(
             @PathVariable String postId,
             Authentication auth) {
         try {
             String userId = auth.getName();
-            Post post = postService.sharePost(postId, userId);
-            return ResponseEntity.ok(post);
+            ReactionResponse reaction = postService.sharePost(postId, userId);
+            return ResponseEntity.ok(reaction);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -116,16 +150,26 @@ public class PostController {
         }
     }
 
+    // Paged comments, newest first
+    @GetMapping("/{postId}/comments")
+    public ResponseEntity<Page<PostComment>> getComments(
+            @PathVariable String postId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Page<PostComment> comments = postService.getComments(postId, page, size);
+        return ResponseEntity.ok(comments);
+    }
+
     // Like comment
     @PostMapping("/{postId}/comments/{commentId}/like")
-    public ResponseEntity<Post> likeComment(
+    public ResponseEntity<ReactionResponse> likeComment(
             @PathVariable String postId,
             @PathVariable String commentId,
             Authentication auth) {
         try {
             String userId = auth.getName();
-            Post post = postService.toggleCommentLike(postId, commentId, userId);
-            return ResponseEntity.ok(post);
+            ReactionResponse reaction = postService.toggleCommentLike(postId, commentId, userId);
+            return ResponseEntity.ok(reaction);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
@@ -0,0 +1,27 @@
+package com.example.learnverse.community.dto;
+
+import com.example.learnverse.community.model.Post;
+
+import java.util.List;
+
+/**
+ * One page of search results. Pass nextCursor back to get the following page; it is null on the last page.
+ */
+public record PostSearchResponse(
+        List<Hit> hits,
+        String nextCursor
+) {
+
+    /**
+     * @param snippet    a short excerpt of the post around the first match
+     * @param highlights matched ranges within the snippet, as [start, end) character offsets
+     */
+    public record Hit(
+            Post post,
+            double score,
+            String snippet,
+            List<Highlight> highlights
+    ) {}
+
+    public record Highlight(int start, int end) {}
+}
@@ -0,0 +1,13 @@
+package com.example.learnverse.community.dto;
+
+/**
+ * Result of a like/share toggle: whether the caller's reaction is now active, plus fresh counts.
+ * commentId is null for post-level reactions.
+ */
+public record ReactionResponse(
+        String postId,
+        String commentId,
+        boolean active,
+        int likesCount,
+        int sharesCount
+) {}
@@ -74,12 +74,12 @@ public class FollowController {
 
     @GetMapping("/stats/{userId}")
     public ResponseEntity<Map<String, Long>> getFollowStats(@PathVariable String userId) {
-        long followersCount = followService.getFollowerCount(userId);
-        long followingCount = followService.getFollowingCount(userId);
+        // One user_stats read for both counters
+        UserStats stats = followService.getStats(userId);
 
         return ResponseEntity.ok(Map.of(
-                "followersCount", followersCount,
-                "followingCount", followingCount
+                "followersCount", stats.getFollowersCount(),
+                "followingCount", stats.getFollowingCount()
         ));
     }
 }
\ No newline at end of file
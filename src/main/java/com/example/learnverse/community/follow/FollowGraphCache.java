@@ -0,0 +1,218 @@
+package com.example.learnverse.community.follow;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory view of the follow graph. Each user's following set is a sorted
+ * {@code int[]} of dictionary codes (4 bytes per edge instead of a String id),
+ * so membership is a binary search. Sets are loaded lazily, patched in place on
+ * follow/unfollow, bounded by total edge weight and expired as a backstop for
+ * changes made on other nodes. Reads only: follow and unfollow are decided by
+ * the follows collection, never by this cache.
+ * <p>
+ * Each set carries the dictionary it was encoded with. Once a dictionary holds more
+ * than {@code max-tutors} ids a fresh one replaces it and every set is dropped, so
+ * the dictionary stays bounded too; sets still in use keep their old dictionary
+ * until they are released.
+ */
+@Component
+@RequiredArgsConstructor
+public class FollowGraphCache {
+
+    private final FollowRepository followRepository;
+    private final UserStatsService userStatsService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.community.follow-graph.max-edges:2000000}")
+    private long maxEdges;
+
+    // Also caps the id dictionary: past this many encoded tutors it is rebuilt from scratch
+    @Value("${app.community.follow-graph.max-tutors:100000}")
+    private long maxTutors;
+
+    @Value("${app.community.follow-graph.ttl:30m}")
+    private Duration ttl;
+
+    private volatile Dictionary dictionary = new Dictionary();
+
+    private Cache<String, FollowingSet> following;
+    private Cache<String, AtomicLong> followerCounts;
+
+    @PostConstruct
+    void init() {
+        following = Caffeine.newBuilder()
+                .maximumWeight(maxEdges)
+                .weigher((String userId, FollowingSet set) -> set.codes().length + 1)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        followerCounts = Caffeine.newBuilder()
+                .maximumSize(maxTutors)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, following, "follow-graph");
+        CaffeineCacheMetrics.monitor(meterRegistry, followerCounts, "follower-counts");
+        Gauge.builder("learnverse.follow.graph.dictionary", this, cache -> cache.dictionary.size())
+                .description("Distinct followed ids encoded in the follow graph cache")
+                .register(meterRegistry);
+    }
+
+    public boolean isFollowing(String followerId, String tutorId) {
+        // Load first: loading is what encodes the tutor ids of this set
+        FollowingSet set = followingSet(followerId);
+        Integer code = set.dictionary().code(tutorId);
+        return code != null && Arrays.binarySearch(set.codes(), code) >= 0;
+    }
+
+    public List<String> getFollowing(String followerId) {
+        FollowingSet set = followingSet(followerId);
+        String[] ids = set.dictionary().ids();
+        List<String> result = new ArrayList<>(set.codes().length);
+        for (int code : set.codes()) {
+            result.add(ids[code]);
+        }
+        return result;
+    }
+
+    public long getFollowingCount(String followerId) {
+        return followingSet(followerId).codes().length;
+    }
+
+    public long getFollowerCount(String tutorId) {
+        return followerCounts.get(tutorId, id -> new AtomicLong(userStatsService.get(id).getFollowersCount())).get();
+    }
+
+    /**
+     * Apply a follow that has just been persisted. Counts not yet loaded are left alone.
+     */
+    public void onFollow(String followerId, String tutorId) {
+        FollowingSet patched = following.asMap().computeIfPresent(followerId, (id, set) -> {
+            int code = set.dictionary().encode(tutorId);
+            int at = Arrays.binarySearch(set.codes(), code);
+            if (at >= 0) {
+                return set;
+            }
+            int insert = -at - 1;
+            int[] updated = new int[set.codes().length + 1];
+            System.arraycopy(set.codes(), 0, updated, 0, insert);
+            updated[insert] = code;
+            System.arraycopy(set.codes(), insert, updated, insert + 1, set.codes().length - insert);
+            return new FollowingSet(set.dictionary(), updated);
+        });
+        if (patched == null) {
+            // A load may be reading from before this follow; drop whatever it caches
+            following.invalidate(followerId);
+        }
+        AtomicLong count = followerCounts.getIfPresent(tutorId);
+        if (count != null) {
+            count.incrementAndGet();
+        }
+    }
+
+    /**
+     * Apply an unfollow that has just been persisted.
+     */
+    public void onUnfollow(String followerId, String tutorId) {
+        FollowingSet patched = following.asMap().computeIfPresent(followerId, (id, set) -> {
+            Integer code = set.dictionary().code(tutorId);
+            int at = code != null ? Arrays.binarySearch(set.codes(), code) : -1;
+            if (at < 0) {
+                return set;
+            }
+            int[] updated = new int[set.codes().length - 1];
+            System.arraycopy(set.codes(), 0, updated, 0, at);
+            System.arraycopy(set.codes(), at + 1, updated, at, set.codes().length - at - 1);
+            return new FollowingSet(set.dictionary(), updated);
+        });
+        if (patched == null) {
+            following.invalidate(followerId);
+        }
+        AtomicLong count = followerCounts.getIfPresent(tutorId);
+        if (count != null) {
+            count.updateAndGet(current -> Math.max(0, current - 1));
+        }
+    }
+
+    private FollowingSet followingSet(String followerId) {
+        FollowingSet set = following.get(followerId, this::load);
+        if (set.dictionary() == dictionary && set.dictionary().size() > maxTutors) {
+            rebuildDictionary(set.dictionary());
+        }
+        return set;
+    }
+
+    private FollowingSet load(String followerId) {
+        Dictionary dict = dictionary;
+        int[] codes = followRepository.findFollowingIdsByFollowerId(followerId).stream()
+                .mapToInt(follow -> dict.encode(follow.getFollowingId()))
+                .sorted()
+                .distinct()
+                .toArray();
+        return new FollowingSet(dict, codes);
+    }
+
+    private synchronized void rebuildDictionary(Dictionary full) {
+        if (dictionary == full) {
+            dictionary = new Dictionary();
+            following.invalidateAll();
+        }
+    }
+
+    private record FollowingSet(Dictionary dictionary, int[] codes) {}
+
+    /**
+     * Append-only id dictionary. Writers serialise on the instance and grow the array by
+     * copying; readers decode through the volatile array without taking a lock.
+     */
+    private static final class Dictionary {
+
+        private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+        private volatile String[] ids = new String[64];
+        private int size;
+
+        Integer code(String id) {
+            return codes.get(id);
+        }
+
+        String[] ids() {
+            return ids;
+        }
+
+        int size() {
+            return codes.size();
+        }
+
+        int encode(String id) {
+            Integer code = codes.get(id);
+            if (code != null) {
+                return code;
+            }
+            synchronized (this) {
+                return codes.computeIfAbsent(id, key -> {
+                    String[] grown = size < ids.length ? ids : Arrays.copyOf(ids, ids.length * 2);
+                    grown[size] = key;
+                    ids = grown;
+                    return size++;
+                });
+            }
+        }
+    }
+}
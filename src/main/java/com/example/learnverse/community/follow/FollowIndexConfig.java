@@ -0,0 +1,65 @@
+package com.example.learnverse.community.follow;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Builds the unique follower_following index while the context starts, i.e. before
+ * the web server takes traffic: follow and unfollow rely on it to reject duplicates.
+ */
+@Component
+@Slf4j
+public class FollowIndexConfig {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @PostConstruct
+    void init() {
+        MongoCollection<Document> follows = mongoTemplate.getCollection("follows");
+
+        try {
+            removeDuplicateFollows(follows);
+
+            follows.createIndex(
+                    new Document("followerId", 1).append("followingId", 1),
+                    new IndexOptions().name("follower_following").unique(true)
+            );
+
+            log.info("Successfully created MongoDB indexes for follows");
+
+        } catch (Exception e) {
+            log.error("Error creating MongoDB indexes for follows: ", e);
+        }
+    }
+
+    // Follows written before the index existed may be doubled; keep the oldest of each pair
+    private void removeDuplicateFollows(MongoCollection<Document> follows) {
+        long removed = 0;
+
+        for (Document group : follows.aggregate(List.of(
+                new Document("$sort", new Document("_id", 1)),
+                new Document("$group", new Document("_id", new Document("followerId", "$followerId")
+                        .append("followingId", "$followingId"))
+                        .append("ids", new Document("$push", "$_id"))
+                        .append("count", new Document("$sum", 1))),
+                new Document("$match", new Document("count", new Document("$gt", 1)))
+        )).allowDiskUse(true)) {
+            List<Object> ids = group.getList("ids", Object.class);
+            removed += follows.deleteMany(Filters.in("_id", ids.subList(1, ids.size()))).getDeletedCount();
+        }
+
+        if (removed > 0) {
+            log.info("Removed {} duplicate follows before building the unique index", removed);
+        }
+    }
+}
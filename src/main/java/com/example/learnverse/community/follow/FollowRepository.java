@@ -1,6 +1,7 @@
 package com.example.learnverse.community.follow;
 
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +17,10 @@ public interface FollowRepository extends MongoRepository<Follow, String> {
     // Get all tutors a user follows
     List<Follow> findByFollowerId(String followerId);
 
+    // Only the followed ids, for the follow graph cache
+    @Query(value = "{ 'followerId': ?0 }", fields = "{ 'followingId': 1 }")
+    List<Follow> findFollowingIdsByFollowerId(String followerId);
+
     // Get all followers of a tutor
     List<Follow> findByFollowingId(String followingId);
 
@@ -27,7 +32,7 @@ public interface FollowRepository extends MongoRepository<Follow, String> {
 
     // Delete follow relationship
     @Transactional
-    void deleteByFollowerIdAndFollowingId(String followerId, String followingId);
+    long deleteByFollowerIdAndFollowingId(String followerId, String followingId);
 
     // Find specific follow
     Optional<Follow> findByFollowerIdAndFollowingId(String followerId, String followingId);
@@ -2,7 +2,9 @@ package com.example.learnverse.community.follow;
 
 import com.example.learnverse.auth.service.UserService;
 import com.example.learnverse.auth.user.AppUser;
+import com.example.learnverse.community.timeline.TimelineService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,6 +22,15 @@ public class FollowService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private FollowGraphCache followGraph;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
     // Follow a tutor
     public Follow followTutor(String followerId, String tutorId) {
         // Validation: Can't follow yourself
@@ -33,40 +44,48 @@ public class FollowService {
             throw new RuntimeException("You can only follow tutors");
         }
 
-        // Check if already following
-        if (followRepository.existsByFollowerIdAndFollowingId(followerId, tutorId)) {
-            throw new RuntimeException("Already following this tutor");
-        }
-
-        // Create follow relationship
+        // Create follow relationship; the unique follower_following index rejects duplicates,
+        // so a follow cache that is stale on this node cannot decide the outcome
         Follow follow = new Follow();
         follow.setFollowerId(followerId);
         follow.setFollowingId(tutorId);
         follow.setFollowedAt(LocalDateTime.now());
 
-        return followRepository.save(follow);
+        Follow saved;
+        try {
+            saved = followRepository.save(follow);
+        } catch (DuplicateKeyException e) {
+            // Already following, possibly through another node; bring this node's cache up to date
+            followGraph.onFollow(followerId, tutorId);
+            throw new RuntimeException("Already following this tutor");
+        }
+        userStatsService.recordFollow(followerId, tutorId);
+        followGraph.onFollow(followerId, tutorId);
+        timelineService.invalidate(followerId);
+        return saved;
     }
 
     // Unfollow a tutor
     public void unfollowTutor(String followerId, String tutorId) {
-        if (!followRepository.existsByFollowerIdAndFollowingId(followerId, tutorId)) {
+        // The delete decides, not the cache; only the request that removed the follow adjusts the counters
+        if (followRepository.deleteByFollowerIdAndFollowingId(followerId, tutorId) == 0) {
+            followGraph.onUnfollow(followerId, tutorId);
             throw new RuntimeException("You are not following this tutor");
         }
 
-        followRepository.deleteByFollowerIdAndFollowingId(followerId, tutorId);
+        userStatsService.recordUnfollow(followerId, tutorId);
+        followGraph.onUnfollow(followerId, tutorId);
+        timelineService.invalidate(followerId);
     }
 
     // Check if user follows tutor
     public boolean isFollowing(String followerId, String tutorId) {
-        return followRepository.existsByFollowerIdAndFollowingId(followerId, tutorId);
+        return followGraph.isFollowing(followerId, tutorId);
     }
 
     // Get all tutors a user follows
     public List<String> getFollowingTutorIds(String userId) {
-        List<Follow> follows = followRepository.findByFollowerId(userId);
-        return follows.stream()
-                .map(Follow::getFollowingId)
-                .collect(Collectors.toList());
+        return followGraph.getFollowing(userId);
     }
 
     // Get all followers of a tutor
@@ -77,13 +96,17 @@ public class FollowService {
                 .collect(Collectors.toList());
     }
 
+    public UserStats getStats(String userId) {
+        return userStatsService.get(userId);
+    }
+
     // Get follower count
     public long getFollowerCount(String tutorId) {
-        return followRepository.countByFollowingId(tutorId);
+        return userStatsService.get(tutorId).getFollowersCount();
     }
 
     // Get following count
     public long getFollowingCount(String userId) {
-        return followRepository.countByFollowerId(userId);
+        return userStatsService.get(userId).getFollowingCount();
     }
 }
@@ -0,0 +1,27 @@
+package com.example.learnverse.community.follow;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-user social counters, kept in step with the follows collection by $inc
+ * and periodically reconciled against it.
+ */
+@Document(collection = "user_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserStats {
+    @Id
+    private String userId;
+
+    private long followersCount;
+    private long followingCount;
+
+    private LocalDateTime updatedAt;
+}
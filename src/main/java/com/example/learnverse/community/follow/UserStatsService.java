@@ -0,0 +1,140 @@
+package com.example.learnverse.community.follow;
+
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Follower/following counters on {@code user_stats}: one document read per
+ * profile view instead of counting follows. Follow and unfollow adjust them with
+ * $inc; a periodic job recounts from the follows collection to repair any drift.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserStatsService {
+
+    private static final String COLLECTION = "user_stats";
+
+    private final MongoTemplate mongoTemplate;
+
+    public UserStats get(String userId) {
+        UserStats stats = mongoTemplate.findById(userId, UserStats.class);
+        return stats != null ? stats : new UserStats(userId, 0, 0, null);
+    }
+
+    public void recordFollow(String followerId, String tutorId) {
+        increment(followerId, "followingCount", 1);
+        increment(tutorId, "followersCount", 1);
+    }
+
+    public void recordUnfollow(String followerId, String tutorId) {
+        increment(followerId, "followingCount", -1);
+        increment(tutorId, "followersCount", -1);
+    }
+
+    private void increment(String userId, String field, int delta) {
+        mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(userId)),
+                new Update().inc(field, delta).set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().upsert(true),
+                UserStats.class);
+    }
+
+    /**
+     * On the first start with user_stats, backfill it from the follows collection while
+     * the context starts, before the server takes traffic. Otherwise profile counters and
+     * the celebrity threshold would read 0 until the first reconcile, and a follow in that
+     * window would $inc a missing document up to 1.
+     */
+    @PostConstruct
+    void backfill() {
+        if (mongoTemplate.estimatedCount(COLLECTION) == 0 && mongoTemplate.estimatedCount(Follow.class) > 0) {
+            log.info("user_stats is empty; backfilling counters from follows");
+            reconcile();
+        }
+    }
+
+    /**
+     * Recount every user's followers and following from the follows collection
+     * and rewrite only the counters that drifted. Runs shortly after startup and
+     * then on a fixed delay. A follow that lands mid-run may be overwritten by the
+     * recount; the next run picks it up.
+     */
+    @Scheduled(
+            initialDelayString = "${app.community.user-stats.reconcile-initial-delay-ms:30000}",
+            fixedDelayString = "${app.community.user-stats.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        try {
+            Map<String, long[]> actual = new HashMap<>();
+            countFollows("followingId", actual, 0);
+            countFollows("followerId", actual, 1);
+
+            List<WriteModel<Document>> fixes = new ArrayList<>();
+            Date now = new Date();
+
+            // Stored counters that disagree with the recount (including users who now have no follows)
+            for (Document stored : mongoTemplate.getCollection(COLLECTION).find()) {
+                String userId = stored.getString("_id");
+                long[] counts = actual.remove(userId);
+                long followers = counts != null ? counts[0] : 0;
+                long following = counts != null ? counts[1] : 0;
+                if (number(stored, "followersCount") != followers || number(stored, "followingCount") != following) {
+                    fixes.add(setCounts(userId, followers, following, now));
+                }
+            }
+            // Users with follows but no stats document yet
+            actual.forEach((userId, counts) -> fixes.add(setCounts(userId, counts[0], counts[1], now)));
+
+            if (!fixes.isEmpty()) {
+                mongoTemplate.getCollection(COLLECTION).bulkWrite(fixes);
+            }
+            log.info("✅ User stats reconciled: {} counters corrected", fixes.size());
+        } catch (Exception e) {
+            log.error("❌ User stats reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    private void countFollows(String groupField, Map<String, long[]> into, int slot) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.group(groupField).count().as("count"));
+        mongoTemplate.aggregate(aggregation, Follow.class, Document.class)
+                .forEach(row -> into.computeIfAbsent(row.getString("_id"), id -> new long[2])[slot] =
+                        ((Number) row.get("count")).longValue());
+    }
+
+    private UpdateOneModel<Document> setCounts(String userId, long followers, long following, Date now) {
+        return new UpdateOneModel<>(
+                new Document("_id", userId),
+                Updates.combine(
+                        Updates.set("followersCount", followers),
+                        Updates.set("followingCount", following),
+                        Updates.set("updatedAt", now)),
+                new UpdateOptions().upsert(true));
+    }
+
+    private long number(Document doc, String field) {
+        Object value = doc.get(field);
+        return value instanceof Number n ? n.longValue() : 0;
+    }
+}
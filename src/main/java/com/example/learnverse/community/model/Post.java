@@ -1,11 +1,13 @@
 package com.example.learnverse.community.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Transient;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -26,13 +28,28 @@ public class Post {
     private String content;
     private String mediaUrl;
     private String mediaType;
+    // PENDING while the media job runs, then READY or FAILED; null for posts without media
+    private String mediaStatus;
+    private String mediaJobId;
 
-    private Set<String> likedBy = new HashSet<>();
-    private List<String> shares = new ArrayList<>();
+    // Who liked/shared lives in post_reactions; the post only keeps counts
+    private int likesCount = 0;
+    private int sharesCount = 0;
 
+    // Per-viewer flags filled in when rendering a feed, never stored
+    @Transient
+    private boolean likedByViewer;
+    @Transient
+    private boolean sharedByViewer;
+
+    // Latest few comments only; the full thread lives in post_comments
     private List<Comment> comments = new ArrayList<>();
     private int commentsCount = 0;
 
+    // False only on legacy posts whose full thread is still embedded here
+    @JsonIgnore
+    private boolean commentsInCollection = true;
+
     @CreatedDate
     private LocalDateTime createdAt;
 
@@ -50,6 +67,7 @@ public class Post {
         private String authorProfilePicture;
         private String content;
         private Set<String> likedBy = new HashSet<>();
+        private int likesCount = 0;
         private LocalDateTime createdAt;
 
 
@@ -0,0 +1,50 @@
+package com.example.learnverse.community.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Full comment history for a post. The post itself only embeds the latest few
+ * comments plus commentsCount; everything else is paged from here. Indexes are
+ * created by PostIndexConfig.
+ */
+@Document(collection = "post_comments")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostComment {
+    @Id
+    private String id;  // Same id as the embedded Post.Comment copy
+
+    private String postId;
+    private String authorId;
+    private String authorName;
+    private String authorType;
+    private String authorProfilePicture;
+    private String content;
+    private Set<String> likedBy = new HashSet<>();
+    private int likesCount = 0;
+    private LocalDateTime createdAt;
+
+    public static PostComment from(String postId, Post.Comment comment) {
+        return new PostComment(
+                comment.getId(),
+                postId,
+                comment.getAuthorId(),
+                comment.getAuthorName(),
+                comment.getAuthorType(),
+                comment.getAuthorProfilePicture(),
+                comment.getContent(),
+                new HashSet<>(comment.getLikedBy()),
+                comment.getLikesCount(),
+                comment.getCreatedAt()
+        );
+    }
+}
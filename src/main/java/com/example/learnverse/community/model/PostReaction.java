@@ -0,0 +1,39 @@
+package com.example.learnverse.community.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One user's like or share of a post. Posts only carry likesCount/sharesCount;
+ * who reacted lives here so post documents stay small however popular they get.
+ * Indexes are created by PostIndexConfig.
+ */
+@Document(collection = "post_reactions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostReaction {
+    public static final String LIKE = "LIKE";
+    public static final String SHARE = "SHARE";
+
+    @Id
+    private String id;
+
+    private String postId;
+    private String userId;
+    private String type;  // LIKE, SHARE
+
+    private LocalDateTime createdAt;
+
+    public PostReaction(String postId, String userId, String type) {
+        this.postId = postId;
+        this.userId = userId;
+        this.type = type;
+        this.createdAt = LocalDateTime.now();
+    }
+}
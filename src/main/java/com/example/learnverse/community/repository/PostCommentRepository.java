@@ -0,0 +1,15 @@
+package com.example.learnverse.community.repository;
+
+import com.example.learnverse.community.model.PostComment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PostCommentRepository extends MongoRepository<PostComment, String> {
+
+    Page<PostComment> findByPostIdOrderByCreatedAtDesc(String postId, Pageable pageable);
+
+    void deleteByPostId(String postId);
+}
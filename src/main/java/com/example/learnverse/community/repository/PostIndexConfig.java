@@ -0,0 +1,274 @@
+package com.example.learnverse.community.repository;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Projections;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.Updates;
+import com.mongodb.client.model.WriteModel;
+import com.mongodb.client.result.UpdateResult;
+import com.example.learnverse.community.model.Post;
+import com.example.learnverse.community.model.PostComment;
+import com.example.learnverse.community.model.PostReaction;
+import com.example.learnverse.community.service.PostService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Post indexes and one-off data migrations. Runs while the context starts, i.e.
+ * before the web server takes traffic: likes and shares rely on the unique
+ * post_reactions index to reject doubles.
+ */
+@Component
+@Slf4j
+public class PostIndexConfig {
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @PostConstruct
+    void init() {
+        removeDuplicateReactions();
+        createIndexes();
+        backfillReactionCounters();
+        migrateEmbeddedComments();
+        migrateReactionSets();
+    }
+
+    // Reactions recorded before the unique index existed may be doubled, and each double bumped
+    // the post's counter; keep the oldest reaction and take the extras back off the counter
+    private void removeDuplicateReactions() {
+        MongoCollection<Document> reactions = mongoTemplate.getCollection("post_reactions");
+        MongoCollection<Document> posts = mongoTemplate.getCollection("posts");
+        long removed = 0;
+
+        try {
+            for (Document group : reactions.aggregate(List.of(
+                    new Document("$sort", new Document("_id", 1)),
+                    new Document("$group", new Document("_id", new Document("postId", "$postId")
+                            .append("userId", "$userId")
+                            .append("type", "$type"))
+                            .append("ids", new Document("$push", "$_id"))
+                            .append("count", new Document("$sum", 1))),
+                    new Document("$match", new Document("count", new Document("$gt", 1)))
+            )).allowDiskUse(true)) {
+                Document key = group.get("_id", Document.class);
+                List<Object> ids = group.getList("ids", Object.class);
+                long deleted = reactions.deleteMany(Filters.in("_id", ids.subList(1, ids.size()))).getDeletedCount();
+
+                String counter = PostReaction.LIKE.equals(key.getString("type")) ? "likesCount" : "sharesCount";
+                String postId = key.getString("postId");
+                posts.updateOne(Filters.eq("_id", ObjectId.isValid(postId) ? new ObjectId(postId) : postId),
+                        Updates.inc(counter, -deleted));
+                removed += deleted;
+            }
+
+            if (removed > 0) {
+                log.info("Removed {} duplicate post reactions before building the unique index", removed);
+            }
+
+        } catch (Exception e) {
+            log.error("Error removing duplicate post reactions: ", e);
+        }
+    }
+
+    private void createIndexes() {
+        MongoCollection<Document> collection = mongoTemplate.getCollection("posts");
+
+        try {
+            // 1. Newest-first feed, and the smart feed's posts after the timeline
+            collection.createIndex(
+                    new Document("createdAt", -1),
+                    new IndexOptions().name("idx_created_desc")
+            );
+
+            // 2. Profile posts, timeline rebuilds and high-follower authors pulled at read time
+            collection.createIndex(
+                    new Document("authorId", 1).append("createdAt", -1),
+                    new IndexOptions().name("idx_author_created")
+            );
+
+            // 3. Tutor-only feed
+            collection.createIndex(
+                    new Document("authorType", 1).append("createdAt", -1),
+                    new IndexOptions().name("idx_author_type_created")
+            );
+
+            // 4. Paged comment threads
+            mongoTemplate.getCollection("post_comments").createIndex(
+                    new Document("postId", 1).append("createdAt", -1),
+                    new IndexOptions().name("post_created")
+            );
+
+            // 5. One reaction per (post, user, type), plus the viewer's batched lookup
+            MongoCollection<Document> reactions = mongoTemplate.getCollection("post_reactions");
+            reactions.createIndex(
+                    new Document("postId", 1).append("userId", 1).append("type", 1),
+                    new IndexOptions().name("post_user_type").unique(true)
+            );
+            reactions.createIndex(
+                    new Document("userId", 1).append("type", 1).append("postId", 1),
+                    new IndexOptions().name("user_type_post")
+            );
+
+            // 6. Community search on post text. Comments are not indexed: the post only embeds
+            //    the latest few, so matching them would cover an arbitrary sliver of each thread.
+            dropCommentTextIndex(collection);
+            collection.createIndex(
+                    new Document("content", "text"),
+                    new IndexOptions().name("idx_content_text")
+                            .defaultLanguage("english")
+            );
+
+            log.info("Successfully created MongoDB indexes for Post collection");
+
+        } catch (Exception e) {
+            log.error("Error creating MongoDB indexes for posts: ", e);
+        }
+    }
+
+    // Earlier builds indexed comments.content too; same name, different keys, so it must go first
+    private void dropCommentTextIndex(MongoCollection<Document> collection) {
+        for (Document index : collection.listIndexes().into(new ArrayList<>())) {
+            Document weights = index.get("weights", Document.class);
+            if ("idx_content_text".equals(index.getString("name")) && weights != null
+                    && weights.containsKey("comments.content")) {
+                collection.dropIndex("idx_content_text");
+                log.info("Dropped idx_content_text so it can be rebuilt without comments.content");
+            }
+        }
+    }
+
+    // Posts written before likesCount/sharesCount existed get them derived from the id sets once
+    private void backfillReactionCounters() {
+        MongoCollection<Document> collection = mongoTemplate.getCollection("posts");
+
+        try {
+            Document commentWithCount = new Document("$mergeObjects", List.of(
+                    "$$c",
+                    new Document("likesCount", sizeOf("$$c.likedBy"))
+            ));
+
+            UpdateResult result = collection.updateMany(
+                    Filters.exists("likesCount", false),
+                    List.of(new Document("$set", new Document("likesCount", sizeOf("$likedBy"))
+                            .append("sharesCount", sizeOf("$shares"))
+                            .append("comments", new Document("$map", new Document("input",
+                                    new Document("$ifNull", List.of("$comments", List.of())))
+                                    .append("as", "c")
+                                    .append("in", commentWithCount)))))
+            );
+
+            if (result.getModifiedCount() > 0) {
+                log.info("Backfilled reaction counters on {} posts", result.getModifiedCount());
+            }
+
+        } catch (Exception e) {
+            log.error("Error backfilling post reaction counters: ", e);
+        }
+    }
+
+    // Copies legacy embedded comment threads into post_comments and trims the post to its preview.
+    // Posts are streamed off a cursor so memory stays flat however many need migrating.
+    private void migrateEmbeddedComments() {
+        Query legacy = new Query(Criteria.where("commentsInCollection").ne(true));
+        legacy.fields().include("comments");
+        legacy.cursorBatchSize(100);
+        int migrated = 0;
+
+        try (Stream<Post> posts = mongoTemplate.stream(legacy, Post.class)) {
+            for (Iterator<Post> it = posts.iterator(); it.hasNext(); ) {
+                Post post = it.next();
+                for (Post.Comment comment : post.getComments()) {
+                    // Insert-only so a rerun never clobbers likes recorded since
+                    mongoTemplate.upsert(
+                            new Query(Criteria.where("id").is(comment.getId())),
+                            Update.fromDocument(new Document("$setOnInsert",
+                                    mongoTemplate.getConverter().convertToMongoType(PostComment.from(post.getId(), comment)))),
+                            PostComment.class);
+                }
+
+                mongoTemplate.updateFirst(
+                        new Query(Criteria.where("id").is(post.getId())),
+                        new Update()
+                                .push("comments").slice(-PostService.PREVIEW_COMMENTS).each()
+                                .set("commentsInCollection", true),
+                        Post.class);
+                migrated++;
+            }
+
+            if (migrated > 0) {
+                log.info("Moved embedded comments of {} posts into post_comments", migrated);
+            }
+
+        } catch (Exception e) {
+            log.error("Error migrating embedded post comments: ", e);
+        }
+    }
+
+    // Moves legacy likedBy/shares id sets into post_reactions and drops them from the post
+    private void migrateReactionSets() {
+        MongoCollection<Document> posts = mongoTemplate.getCollection("posts");
+        MongoCollection<Document> reactions = mongoTemplate.getCollection("post_reactions");
+        int migrated = 0;
+
+        try {
+            Bson legacy = Filters.or(Filters.exists("likedBy"), Filters.exists("shares"));
+            for (Document post : posts.find(legacy).projection(Projections.include("likedBy", "shares"))) {
+                String postId = post.getObjectId("_id").toHexString();
+                List<WriteModel<Document>> writes = new ArrayList<>();
+                addReactionUpserts(writes, postId, post.getList("likedBy", String.class), PostReaction.LIKE);
+                addReactionUpserts(writes, postId, post.getList("shares", String.class), PostReaction.SHARE);
+
+                if (!writes.isEmpty()) {
+                    reactions.bulkWrite(writes, new BulkWriteOptions().ordered(false));
+                }
+                posts.updateOne(Filters.eq("_id", post.getObjectId("_id")),
+                        Updates.combine(Updates.unset("likedBy"), Updates.unset("shares")));
+                migrated++;
+            }
+
+            if (migrated > 0) {
+                log.info("Moved like/share id sets of {} posts into post_reactions", migrated);
+            }
+
+        } catch (Exception e) {
+            log.error("Error migrating post reactions: ", e);
+        }
+    }
+
+    private static void addReactionUpserts(List<WriteModel<Document>> writes, String postId,
+                                           List<String> userIds, String type) {
+        if (userIds == null) {
+            return;
+        }
+        for (String userId : userIds) {
+            Document key = new Document("postId", postId).append("userId", userId).append("type", type);
+            writes.add(new UpdateOneModel<>(key,
+                    Updates.setOnInsert("createdAt", new Date()),
+                    new UpdateOptions().upsert(true)));
+        }
+    }
+
+    private static Document sizeOf(String arrayField) {
+        return new Document("$size", new Document("$ifNull", List.of(arrayField, List.of())));
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.learnverse.community.repository;
+
+import com.example.learnverse.community.model.PostReaction;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PostReactionRepository extends MongoRepository<PostReaction, String> {
+
+    boolean existsByPostIdAndUserIdAndType(String postId, String userId, String type);
+
+    long deleteByPostIdAndUserIdAndType(String postId, String userId, String type);
+
+    // Batched "which of these posts did I react to" for feed rendering
+    @Query(value = "{ 'userId': ?0, 'type': ?1, 'postId': { $in: ?2 } }", fields = "{ 'postId': 1 }")
+    List<PostReaction> findPostIdsReactedBy(String userId, String type, Collection<String> postIds);
+
+    void deleteByPostId(String postId);
+}
@@ -0,0 +1,73 @@
+package com.example.learnverse.community.service;
+
+import com.example.learnverse.community.model.Post;
+import com.example.learnverse.community.timeline.TimelineService;
+import com.example.learnverse.community.websocket.WebSocketNotificationService;
+import com.example.learnverse.media.model.MediaJob;
+import com.example.learnverse.media.service.MediaJobHandler;
+import com.example.learnverse.media.store.MediaSpec;
+import com.example.learnverse.media.store.MediaStore;
+import com.example.learnverse.media.store.StoredMedia;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Uploads a post's attachment, then publishes the post to follower timelines and live feeds.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostMediaJobHandler implements MediaJobHandler {
+
+    private final MediaStore mediaStore;
+    private final MongoTemplate mongoTemplate;
+    private final WebSocketNotificationService webSocketService;
+    private final TimelineService timelineService;
+
+    @Override
+    public MediaJob.Kind kind() {
+        return MediaJob.Kind.POST_MEDIA;
+    }
+
+    @Override
+    public String process(MediaJob job, Path file) throws IOException {
+        StoredMedia stored = mediaStore.store(file, MediaSpec.auto("community_posts")
+                .from(job.getOriginalFilename())
+                .fit(800, 600, "limit"));
+
+        Post post = mongoTemplate.findAndModify(
+                new Query(Criteria.where("id").is(job.getTargetId())),
+                new Update()
+                        .set("mediaUrl", stored.url())
+                        .set("mediaStatus", "READY"),
+                FindAndModifyOptions.options().returnNew(true),
+                Post.class);
+
+        if (post == null) {
+            // Post was deleted while its media was uploading
+            log.info("Post {} gone before its media finished; discarding upload", job.getTargetId());
+            mediaStore.delete(stored.url());
+        } else {
+            timelineService.fanOut(post);
+            webSocketService.broadcastNewPost(post);
+        }
+        return stored.url();
+    }
+
+    @Override
+    public void onDeadLetter(MediaJob job) {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("id").is(job.getTargetId())),
+                new Update().set("mediaStatus", "FAILED"),
+                Post.class);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.learnverse.community.service;
+
+import com.example.learnverse.community.dto.PostSearchResponse;
+import com.example.learnverse.community.model.Post;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Community search over the post text index (idx_content_text); comments are not searched.
+ * Results are ranked by text relevance damped by age, and paged with a keyset
+ * cursor on (rank, _id), so no page skips over earlier results. Every page still
+ * scores the whole match set and keeps the top {@code size + 1} of it, so the cost
+ * grows with how many posts match the query, not with how deep the page is.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PostSearchService {
+
+    private static final int MAX_PAGE_SIZE = 50;
+    private static final int SNIPPET_CHARS = 160;
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    private final MongoTemplate mongoTemplate;
+    private final PostService postService;
+
+    // Age at which a post's relevance is halved
+    @Value("${app.community.search.recency-half-life-hours:72}")
+    private long recencyHalfLifeHours;
+
+    public PostSearchResponse search(String query, String cursor, int size, String viewerId) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        int limit = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        // The first page fixes "now", so ranks stay comparable across pages and new posts don't shift them
+        Cursor after = cursor != null && !cursor.isBlank() ? Cursor.decode(cursor) : null;
+        Date asOf = after != null ? new Date(after.asOf()) : new Date();
+
+        List<Document> pipeline = new ArrayList<>();
+        pipeline.add(new Document("$match", new Document("$text", new Document("$search", query))
+                .append("createdAt", new Document("$lte", asOf))
+                .append("mediaStatus", new Document("$in", PostService.PUBLISHED_MEDIA_STATUSES))));
+        pipeline.add(new Document("$addFields", new Document("_score", new Document("$meta", "textScore"))));
+        pipeline.add(new Document("$addFields", new Document("_rank", rankExpression(asOf))));
+        if (after != null) {
+            pipeline.add(new Document("$match", new Document("$or", List.of(
+                    new Document("_rank", new Document("$lt", after.rank())),
+                    new Document("_rank", after.rank()).append("_id", new Document("$lt", idValue(after.id())))))));
+        }
+        pipeline.add(new Document("$sort", new Document("_rank", -1).append("_id", -1)));
+        pipeline.add(new Document("$limit", limit + 1));
+
+        List<Document> rows = mongoTemplate.getCollection("posts").aggregate(pipeline).into(new ArrayList<>());
+
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+
+        List<String> terms = terms(query);
+        List<Post> posts = new ArrayList<>(rows.size());
+        for (Document row : rows) {
+            posts.add(mongoTemplate.getConverter().read(Post.class, row));
+        }
+        postService.withViewerReactions(posts, viewerId);
+
+        List<PostSearchResponse.Hit> hits = new ArrayList<>(posts.size());
+        for (int i = 0; i < posts.size(); i++) {
+            Post post = posts.get(i);
+            double score = rows.get(i).get("_score", Number.class).doubleValue();
+            hits.add(highlight(post, score, terms));
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Document last = rows.get(rows.size() - 1);
+            nextCursor = new Cursor(asOf.getTime(), last.get("_rank", Number.class).doubleValue(),
+                    last.get("_id").toString()).encode();
+        }
+
+        log.debug("🔎 Post search '{}' returned {} hits", query, hits.size());
+        return new PostSearchResponse(hits, nextCursor);
+    }
+
+    // textScore / (1 + age / halfLife)
+    private Document rankExpression(Date asOf) {
+        long halfLifeMs = Math.max(1, recencyHalfLifeHours) * 3_600_000L;
+        Document ageMs = new Document("$max", List.of(0,
+                new Document("$subtract", List.of(asOf, new Document("$ifNull", List.of("$createdAt", asOf))))));
+        return new Document("$divide", List.of("$_score",
+                new Document("$add", List.of(1, new Document("$divide", List.of(ageMs, halfLifeMs))))));
+    }
+
+    private Object idValue(String id) {
+        return ObjectId.isValid(id) ? new ObjectId(id) : id;
+    }
+
+    // Plain search words; quoted phrases contribute their words and negated terms are skipped
+    private List<String> terms(String query) {
+        List<String> terms = new ArrayList<>();
+        for (String token : query.split("\\s+")) {
+            if (token.startsWith("-")) {
+                continue;
+            }
+            Matcher matcher = WORD.matcher(token.toLowerCase(Locale.ROOT));
+            while (matcher.find()) {
+                if (matcher.group().length() > 1) {
+                    terms.add(matcher.group());
+                }
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Excerpt around the first matching word. Words are matched by prefix,
+     * which roughly covers the stemming the text index applies ("course" ~ "courses").
+     */
+    private PostSearchResponse.Hit highlight(Post post, double score, List<String> terms) {
+        String content = post.getContent() != null ? post.getContent() : "";
+
+        List<int[]> matches = new ArrayList<>();
+        Matcher matcher = WORD.matcher(content);
+        while (matcher.find()) {
+            String word = matcher.group().toLowerCase(Locale.ROOT);
+            for (String term : terms) {
+                if (word.startsWith(term) || term.startsWith(word) && word.length() > 3) {
+                    matches.add(new int[]{matcher.start(), matcher.end()});
+                    break;
+                }
+            }
+        }
+
+        int start = 0;
+        if (!matches.isEmpty() && content.length() > SNIPPET_CHARS) {
+            start = Math.max(0, Math.min(matches.get(0)[0] - SNIPPET_CHARS / 4, content.length() - SNIPPET_CHARS));
+        }
+        int end = Math.min(content.length(), start + SNIPPET_CHARS);
+
+        List<PostSearchResponse.Highlight> highlights = new ArrayList<>();
+        for (int[] match : matches) {
+            if (match[0] >= start && match[1] <= end) {
+                highlights.add(new PostSearchResponse.Highlight(match[0] - start, match[1] - start));
+            }
+        }
+        return new PostSearchResponse.Hit(post, score, content.substring(start, end), highlights);
+    }
+
+    private record Cursor(long asOf, double rank, String id) {
+
+        String encode() {
+            String raw = asOf + ":" + rank + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", 3);
+                return new Cursor(Long.parseLong(parts[0]), Double.parseDouble(parts[1]), parts[2]);
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid search cursor");
+            }
+        }
+    }
+}
@@ -1,69 +1,103 @@
 package com.example.learnverse.community.service;
 
-import com.example.learnverse.auth.service.UserService;
-import com.example.learnverse.auth.user.AppUser;
-import com.example.learnverse.community.follow.FollowService;
+import com.example.learnverse.community.author.AuthorCard;
+import com.example.learnverse.community.author.AuthorCardService;
+import com.example.learnverse.community.dto.ReactionResponse;
 import com.example.learnverse.community.websocket.WebSocketNotificationService;
 import com.example.learnverse.community.model.Post;
+import com.example.learnverse.community.model.PostComment;
+import com.example.learnverse.community.model.PostReaction;
+import com.example.learnverse.community.repository.PostCommentRepository;
+import com.example.learnverse.community.repository.PostReactionRepository;
+import com.example.learnverse.community.timeline.Timeline;
+import com.example.learnverse.community.timeline.TimelineService;
 import com.example.learnverse.community.repository.PostRepository;
-import com.example.learnverse.tutor.model.TutorVerification;
-import com.example.learnverse.tutor.repo.TutorVerificationRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import com.example.learnverse.community.cloudinary.CloudinaryService;
+import com.example.learnverse.media.model.MediaJob;
+import com.example.learnverse.media.service.MediaPipelineService;
+import com.example.learnverse.media.store.MediaStore;
 import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class PostService {
 
+    // Comments embedded on the post for feed previews; the rest live in post_comments
+    public static final int PREVIEW_COMMENTS = 3;
+
+    // Media posts stay out of feeds and search until their upload is READY
+    public static final List<String> PUBLISHED_MEDIA_STATUSES = Arrays.asList(null, "READY");
+
     @Autowired
     private PostRepository postRepository;
 
     @Autowired
-    private CloudinaryService cloudinaryService;
+    private PostCommentRepository postCommentRepository;
+
+    @Autowired
+    private PostReactionRepository postReactionRepository;
+
+    @Autowired
+    private MediaStore mediaStore;
 
     @Autowired
-    private UserService userService;
+    private MediaPipelineService mediaPipelineService;
 
     @Autowired
     private WebSocketNotificationService webSocketService;
 
     @Autowired
-    private FollowService followService;
+    private TimelineService timelineService;
 
     @Autowired
-    private TutorVerificationRepository tutorVerificationRepository;
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private AuthorCardService authorCardService;
 
     public Post createPost(String authorId, String content, MultipartFile file) {
-        AppUser author = userService.getUserById(authorId);
+        AuthorCard author = authorCardService.get(authorId);
 
         Post post = new Post();
         post.setAuthorId(authorId);
-        post.setAuthorName(author.getName());
-        post.setAuthorType(author.getRole().toString());
-        post.setAuthorProfilePicture(getProfilePicture(author));
+        post.setAuthorName(author.name());
+        post.setAuthorType(author.role());
+        post.setAuthorProfilePicture(author.profilePicture());
         post.setContent(content);
         post.setCreatedAt(LocalDateTime.now());
         post.setUpdatedAt(LocalDateTime.now());
 
-        // Handle file upload
-        if (file != null && !file.isEmpty()) {
-            Map<String, String> uploadResult = cloudinaryService.uploadFile(file, "community_posts");
-            post.setMediaUrl(uploadResult.get("url"));
+        boolean hasMedia = file != null && !file.isEmpty();
+
+        // Media is uploaded by the media pipeline; the post is published once it is ready
+        if (hasMedia) {
+            post.setMediaStatus("PENDING");
 
-            String contentType = file.getContentType();
+            String contentType = file.getContentType() != null ? file.getContentType() : "";
             if (contentType.startsWith("image/")) {
                 post.setMediaType("image");
             } else if (contentType.startsWith("video/")) {
@@ -77,157 +111,326 @@ public class PostService {
 
         Post savedPost = postRepository.save(post);
 
-        // Send real-time notification to followers (optional)
-        webSocketService.broadcastNewPost(savedPost);
+        if (hasMedia) {
+            try {
+                MediaJob job = mediaPipelineService.submit(
+                        MediaJob.Kind.POST_MEDIA, authorId, savedPost.getId(), null, file);
+                savedPost.setMediaJobId(job.getId());
+                mongoTemplate.updateFirst(new Query(Criteria.where("id").is(savedPost.getId())),
+                        new Update().set("mediaJobId", job.getId()), Post.class);
+            } catch (IOException e) {
+                postRepository.deleteById(savedPost.getId());
+                throw new RuntimeException("Failed to queue post media: " + e.getMessage());
+            }
+        }
+
+        // Posts with media are fanned out and announced by PostMediaJobHandler once the upload completes
+        if (!hasMedia) {
+            timelineService.fanOut(savedPost);
+            webSocketService.broadcastNewPost(savedPost);
+        }
 
         return savedPost;
     }
 
     // ✅ UPDATED: Add comment to post
     public Post addComment(String postId, String authorId, String content) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
-
         // Get commenter details
-        AppUser commenter = userService.getUserById(authorId);
+        AuthorCard commenter = authorCardService.get(authorId);
 
         // Create embedded comment with profile picture
         Post.Comment comment = new Post.Comment(
                 authorId,
-                commenter.getName(),
-                commenter.getRole().toString(),
-                getProfilePicture(commenter),
+                commenter.name(),
+                commenter.role(),
+                commenter.profilePicture(),
                 content
         );
 
-        // Add to post's comments list
-        post.getComments().add(comment);
-        post.setCommentsCount(post.getComments().size());
-        post.setUpdatedAt(LocalDateTime.now());
+        if (!postRepository.existsById(postId)) {
+            throw new RuntimeException("Post not found");
+        }
 
-        Post savedPost = postRepository.save(post);
+        postCommentRepository.save(PostComment.from(postId, comment));
+
+        // Post keeps only the latest few comments for feed previews
+        Post savedPost = mongoTemplate.findAndModify(
+                new Query(Criteria.where("id").is(postId)),
+                new Update()
+                        .push("comments").slice(-PREVIEW_COMMENTS).each(comment)
+                        .inc("commentsCount", 1)
+                        .set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                Post.class);
+
+        if (savedPost == null) {
+            // Post was deleted between the check and the push
+            postCommentRepository.deleteById(comment.getId());
+            throw new RuntimeException("Post not found");
+        }
 
         // Real-time notification
-        webSocketService.broadcastNewComment(postId, comment);
+        webSocketService.broadcastNewComment(savedPost, comment);
 
         return savedPost;
     }
 
-    // Like/Unlike post
-    public Post toggleLike(String postId, String userId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+    // Like/Unlike post: the unique (postId, userId, type) index decides, the post only gets an $inc
+    public ReactionResponse toggleLike(String postId, String userId) {
+        try {
+            postReactionRepository.insert(new PostReaction(postId, userId, PostReaction.LIKE));
+        } catch (DuplicateKeyException alreadyLiked) {
+            boolean removed = postReactionRepository.deleteByPostIdAndUserIdAndType(postId, userId, PostReaction.LIKE) > 0;
+            // A concurrent unlike may have won the delete; only the winner decrements
+            if (!removed) {
+                return toReaction(findCounts(postId), null, false);
+            }
+            Post counts = incrementCount(postId, "likesCount", -1);
+            if (counts == null) {
+                throw new RuntimeException("Post not found");
+            }
+            webSocketService.broadcastPostStats(counts);
+            return toReaction(counts, null, false);
+        }
 
-        if (post.getLikedBy().contains(userId)) {
-            post.getLikedBy().remove(userId); // Unlike
-        } else {
-            post.getLikedBy().add(userId);    // Like
+        Post counts = incrementCount(postId, "likesCount", 1);
+        if (counts == null) {
+            postReactionRepository.deleteByPostIdAndUserIdAndType(postId, userId, PostReaction.LIKE);
+            throw new RuntimeException("Post not found");
+        }
+
+        // Real-time notification
+        webSocketService.broadcastPostStats(counts);
+        return toReaction(counts, null, true);
+    }
 
-            // Real-time notification
-            webSocketService.broadcastPostLike(postId, userId);
+    // Like/Unlike comment on its post_comments document, mirrored onto the embedded preview copy
+    public ReactionResponse toggleCommentLike(String postId, String commentId, String userId) {
+        PostComment counts = mongoTemplate.findAndModify(
+                commentCountsQuery(postId, commentId, Criteria.where("likedBy").ne(userId)),
+                new Update().addToSet("likedBy", userId).inc("likesCount", 1),
+                FindAndModifyOptions.options().returnNew(true),
+                PostComment.class);
+        boolean liked = counts != null;
+
+        if (!liked) {
+            counts = mongoTemplate.findAndModify(
+                    commentCountsQuery(postId, commentId, Criteria.where("likedBy").is(userId)),
+                    new Update().pull("likedBy", userId).inc("likesCount", -1),
+                    FindAndModifyOptions.options().returnNew(true),
+                    PostComment.class);
+            if (counts == null) {
+                throw new RuntimeException("Comment not found");
+            }
         }
 
-        post.setUpdatedAt(LocalDateTime.now());
-        return postRepository.save(post);
+        // Keep the preview copy in sync; a no-op once the comment has scrolled out of the latest few
+        Update preview = liked
+                ? new Update().addToSet("comments.$[c].likedBy", userId)
+                : new Update().pull("comments.$[c].likedBy", userId);
+        preview.set("comments.$[c].likesCount", counts.getLikesCount())
+                .filterArray(Criteria.where("c._id").is(commentId));
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("id").is(postId).and("comments._id").is(commentId)), preview, Post.class);
+
+        return new ReactionResponse(postId, commentId, liked, counts.getLikesCount(), 0);
     }
 
-    // Like/Unlike comment
-    public Post toggleCommentLike(String postId, String commentId, String userId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+    // Paged comment history, newest first
+    public Page<PostComment> getComments(String postId, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
+        return postCommentRepository.findByPostIdOrderByCreatedAtDesc(postId, pageable);
+    }
 
-        // Find the comment
-        Post.Comment comment = post.getComments().stream()
-                .filter(c -> c.getId().equals(commentId))
-                .findFirst()
-                .orElseThrow(() -> new RuntimeException("Comment not found"));
+    // Share post (idempotent per user)
+    public ReactionResponse sharePost(String postId, String userId) {
+        try {
+            postReactionRepository.insert(new PostReaction(postId, userId, PostReaction.SHARE));
+        } catch (DuplicateKeyException alreadyShared) {
+            return toReaction(findCounts(postId), null, true);
+        }
 
-        if (comment.getLikedBy().contains(userId)) {
-            comment.getLikedBy().remove(userId); // Unlike
-        } else {
-            comment.getLikedBy().add(userId);    // Like
+        Post counts = incrementCount(postId, "sharesCount", 1);
+        if (counts == null) {
+            postReactionRepository.deleteByPostIdAndUserIdAndType(postId, userId, PostReaction.SHARE);
+            throw new RuntimeException("Post not found");
         }
 
-        post.setUpdatedAt(LocalDateTime.now());
-        return postRepository.save(post);
+        // Real-time notification
+        webSocketService.broadcastPostStats(counts);
+        return toReaction(counts, null, true);
     }
 
-    // Share post
-    public Post sharePost(String postId, String userId) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
+    /**
+     * Flags which of the given posts the viewer has liked or shared, with one
+     * indexed query per reaction type regardless of page size.
+     */
+    public List<Post> withViewerReactions(List<Post> posts, String userId) {
+        if (posts.isEmpty() || userId == null) {
+            return posts;
+        }
 
-        if (!post.getShares().contains(userId)) {
-            post.getShares().add(userId);
-            post.setUpdatedAt(LocalDateTime.now());
+        List<String> postIds = posts.stream().map(Post::getId).collect(Collectors.toList());
+        Set<String> liked = reactedPostIds(userId, PostReaction.LIKE, postIds);
+        Set<String> shared = reactedPostIds(userId, PostReaction.SHARE, postIds);
 
-            // Real-time notification
-            webSocketService.broadcastPostShare(postId, userId);
-        }
+        posts.forEach(post -> {
+            post.setLikedByViewer(liked.contains(post.getId()));
+            post.setSharedByViewer(shared.contains(post.getId()));
+        });
+        return posts;
+    }
+
+    // Batched "did I like/share these posts" lookup for posts rendered outside a feed page
+    public Map<String, Set<String>> getViewerReactions(String userId, List<String> postIds) {
+        return Map.of(
+                "liked", reactedPostIds(userId, PostReaction.LIKE, postIds),
+                "shared", reactedPostIds(userId, PostReaction.SHARE, postIds)
+        );
+    }
 
-        return postRepository.save(post);
+    private Page<Post> withViewerReactions(Page<Post> page, String userId) {
+        withViewerReactions(page.getContent(), userId);
+        return page;
     }
 
-    // ⭐ FIXED: Smart Feed with followed tutors prioritized
-    public Page<Post> getSmartFeed(String userId, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
+    private Set<String> reactedPostIds(String userId, String type, List<String> postIds) {
+        return postReactionRepository.findPostIdsReactedBy(userId, type, postIds).stream()
+                .map(PostReaction::getPostId)
+                .collect(Collectors.toSet());
+    }
+
+    private Post incrementCount(String postId, String counter, int delta) {
+        return mongoTemplate.findAndModify(
+                countsQuery(Criteria.where("id").is(postId)),
+                new Update().inc(counter, delta).set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                Post.class);
+    }
 
-        // Get tutors the user follows
-        List<String> followingTutorIds = followService.getFollowingTutorIds(userId);
+    private Query countsQuery(Criteria criteria) {
+        Query query = new Query(criteria);
+        // authorId rides along so events can be routed to the author's topic
+        query.fields().include("authorId", "likesCount", "sharesCount");
+        return query;
+    }
 
-        if (followingTutorIds.isEmpty()) {
-            // User doesn't follow anyone - show all posts
-            return postRepository.findAllByOrderByCreatedAtDesc(pageable);
-        }
+    private Query commentCountsQuery(String postId, String commentId, Criteria likedByCondition) {
+        Query query = new Query(Criteria.where("id").is(commentId).and("postId").is(postId));
+        query.addCriteria(likedByCondition);
+        query.fields().include("likesCount");
+        return query;
+    }
 
-        // ⭐ SIMPLE APPROACH: Fetch all posts and sort in memory
-        List<Post> allPosts = postRepository.findAll();
+    private Post findCounts(String postId) {
+        Post counts = mongoTemplate.findOne(countsQuery(Criteria.where("id").is(postId)), Post.class);
+        if (counts == null) {
+            throw new RuntimeException("Post not found");
+        }
+        return counts;
+    }
 
-        // Sort: Posts from followed tutors first, then others (newest first)
-        List<Post> sortedPosts = allPosts.stream()
-                .sorted((post1, post2) -> {
-                    boolean post1IsFollowed = followingTutorIds.contains(post1.getAuthorId());
-                    boolean post2IsFollowed = followingTutorIds.contains(post2.getAuthorId());
+    private ReactionResponse toReaction(Post counts, String commentId, boolean active) {
+        return new ReactionResponse(counts.getId(), commentId, active, counts.getLikesCount(), counts.getSharesCount());
+    }
 
-                    // If both are followed or both not followed, sort by date
-                    if (post1IsFollowed == post2IsFollowed) {
-                        return post2.getCreatedAt().compareTo(post1.getCreatedAt());
-                    }
+    // ⭐ Smart Feed: the user's timeline first, then everything else newest first
+    public Page<Post> getSmartFeed(String userId, int page, int size) {
+        Pageable pageable = PageRequest.of(page, size);
 
-                    // Followed posts come first
-                    return post1IsFollowed ? -1 : 1;
-                })
-                .collect(Collectors.toList());
+        List<Timeline.Entry> followed = liveEntries(timelineService.getEntries(userId));
 
-        // Apply pagination manually
-        int start = page * size;
-        int end = Math.min(start + size, sortedPosts.size());
+        if (followed.isEmpty()) {
+            // User doesn't follow anyone (or they haven't posted) - show all posts
+            return withViewerReactions(postRepository.findPublishedOrderByCreatedAtDesc(pageable), userId);
+        }
 
-        if (start >= sortedPosts.size()) {
-            return new PageImpl<>(Collections.emptyList(), pageable, sortedPosts.size());
+        long offset = pageable.getOffset();
+        List<Post> content = new ArrayList<>(loadTimelineSlice(followed, offset, size));
+
+        int remaining = size - content.size();
+        if (remaining > 0) {
+            // Anything not already in the timeline section, including followed posts past its cap
+            List<String> followedIds = followed.stream().map(Timeline.Entry::getPostId).collect(Collectors.toList());
+            Query others = new Query(Criteria.where("id").nin(followedIds).and("mediaStatus").in(PUBLISHED_MEDIA_STATUSES))
+                    .with(Sort.by(Sort.Direction.DESC, "createdAt"))
+                    .skip(Math.max(0, offset - followed.size()))
+                    .limit(remaining);
+            content.addAll(mongoTemplate.find(others, Post.class));
         }
 
-        List<Post> paginatedPosts = sortedPosts.subList(start, end);
-        return new PageImpl<>(paginatedPosts, pageable, sortedPosts.size());
+        // Timeline section + everything else is every post once; the collection's metadata count is close
+        // enough for paging and avoids counting the whole collection against the $nin list per request
+        long total = Math.max(mongoTemplate.estimatedCount(Post.class), followed.size());
+        return new PageImpl<>(withViewerReactions(content, userId), pageable, total);
     }
 
-    // ⭐ NEW: Get feed from ONLY followed tutors
+    // ⭐ Feed from ONLY followed tutors, served from the materialized timeline
     public Page<Post> getFollowingFeed(String userId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
 
-        List<String> followingTutorIds = followService.getFollowingTutorIds(userId);
+        List<Timeline.Entry> entries = liveEntries(timelineService.getEntries(userId));
 
-        if (followingTutorIds.isEmpty()) {
+        if (entries.isEmpty()) {
             return Page.empty();
         }
 
-        return postRepository.findByAuthorIdInOrderByCreatedAtDesc(followingTutorIds, pageable);
+        List<Post> content = loadTimelineSlice(entries, pageable.getOffset(), size);
+        return new PageImpl<>(withViewerReactions(content, userId), pageable, entries.size());
+    }
+
+    /**
+     * Drop timeline entries whose post was deleted or is not published, so pages are cut
+     * from the posts actually shown and the sections after the timeline start at the right offset.
+     */
+    private List<Timeline.Entry> liveEntries(List<Timeline.Entry> entries) {
+        if (entries.isEmpty()) {
+            return entries;
+        }
+
+        List<String> ids = entries.stream().map(Timeline.Entry::getPostId).collect(Collectors.toList());
+        Query query = new Query(Criteria.where("id").in(ids).and("mediaStatus").in(PUBLISHED_MEDIA_STATUSES));
+        query.fields().include("id");
+        Set<String> live = mongoTemplate.find(query, Post.class).stream()
+                .map(Post::getId)
+                .collect(Collectors.toSet());
+
+        return entries.stream()
+                .filter(entry -> live.contains(entry.getPostId()))
+                .collect(Collectors.toList());
+    }
+
+    private List<Post> loadTimelineSlice(List<Timeline.Entry> entries, long offset, int size) {
+        if (offset >= entries.size()) {
+            return Collections.emptyList();
+        }
+
+        List<String> ids = entries.subList((int) offset, (int) Math.min(offset + size, entries.size())).stream()
+                .map(Timeline.Entry::getPostId)
+                .collect(Collectors.toList());
+
+        // findAllById doesn't keep order; posts deleted or unpublished since liveEntries simply drop out
+        Map<String, Post> byId = new HashMap<>();
+        postRepository.findAllById(ids).forEach(post -> {
+            if (isPublished(post)) {
+                byId.put(post.getId(), post);
+            }
+        });
+
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    public static boolean isPublished(Post post) {
+        return PUBLISHED_MEDIA_STATUSES.contains(post.getMediaStatus());
     }
 
     // Get feed posts
-    public Page<Post> getFeedPosts(int page, int size) {
+    public Page<Post> getFeedPosts(String viewerId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return postRepository.findAllByOrderByCreatedAtDesc(pageable);
+        return withViewerReactions(postRepository.findPublishedOrderByCreatedAtDesc(pageable), viewerId);
     }
 
     // Get tutor posts only
@@ -236,25 +439,32 @@ public class PostService {
         return postRepository.findTutorPostsOrderByCreatedAtDesc(pageable);
     }
 
-    // Get user's posts
-    public Page<Post> getUserPosts(String userId, int page, int size) {
+    // Get user's posts; authors also see their own pending and failed uploads
+    public Page<Post> getUserPosts(String userId, String viewerId, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
-        return postRepository.findByAuthorIdOrderByCreatedAtDesc(userId, pageable);
+        Page<Post> posts = userId.equals(viewerId)
+                ? postRepository.findByAuthorIdOrderByCreatedAtDesc(userId, pageable)
+                : postRepository.findPublishedByAuthorIdOrderByCreatedAtDesc(userId, pageable);
+        return withViewerReactions(posts, viewerId);
     }
 
     // Update post (only by author)
     public Post updatePost(String postId, String authorId, String content) {
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
-
-        if (!post.getAuthorId().equals(authorId)) {
+        // $set only the content so concurrent likes/comments aren't overwritten
+        Post updated = mongoTemplate.findAndModify(
+                new Query(Criteria.where("id").is(postId).and("authorId").is(authorId)),
+                new Update().set("content", content).set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                Post.class);
+
+        if (updated == null) {
+            if (!postRepository.existsById(postId)) {
+                throw new RuntimeException("Post not found");
+            }
             throw new RuntimeException("You can only update your own posts");
         }
 
-        post.setContent(content);
-        post.setUpdatedAt(LocalDateTime.now());
-
-        return postRepository.save(post);
+        return updated;
     }
 
     // Delete post (only by author)
@@ -266,35 +476,17 @@ public class PostService {
             throw new RuntimeException("You can only delete your own posts");
         }
 
-        // Delete media from Cloudinary if exists
+        // Delete stored media if exists
         if (post.getMediaUrl() != null && !post.getMediaUrl().isEmpty()) {
             try {
-                String publicId = extractPublicIdFromUrl(post.getMediaUrl());
-                cloudinaryService.deleteFile(publicId);
+                mediaStore.delete(post.getMediaUrl());
             } catch (Exception e) {
                 // Log error but don't fail deletion
             }
         }
 
         postRepository.deleteById(postId);
-    }
-
-    private String getProfilePicture(AppUser user) {
-        // Check if user is a tutor and has verification
-        if ("TUTOR".equals(user.getRole().toString())) {
-            Optional<TutorVerification> verification = tutorVerificationRepository.findByEmail(user.getEmail());
-            if (verification.isPresent() && verification.get().getProfilePicturePath() != null) {
-                return verification.get().getProfilePicturePath();
-            }
-        }
-        // Return default or null if no profile picture
-        return null;
-    }
-
-    private String extractPublicIdFromUrl(String url) {
-        // Extract public ID from Cloudinary URL
-        String[] parts = url.split("/");
-        String fileWithExtension = parts[parts.length - 1];
-        return "community_posts/" + fileWithExtension.split("\\.")[0];
+        postCommentRepository.deleteByPostId(postId);
+        postReactionRepository.deleteByPostId(postId);
     }
 }
\ No newline at end of file
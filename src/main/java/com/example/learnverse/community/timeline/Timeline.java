@@ -0,0 +1,36 @@
+package com.example.learnverse.community.timeline;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Materialized following-feed for one user: post ids pushed at write time, newest first, capped.
+ */
+@Document(collection = "timelines")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Timeline {
+    @Id
+    private String userId;
+
+    private List<Entry> entries = new ArrayList<>();
+
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private String postId;
+        private String authorId;
+        private LocalDateTime createdAt;
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.learnverse.community.timeline;
+
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TimelineRepository extends MongoRepository<Timeline, String> {
+}
@@ -0,0 +1,264 @@
+package com.example.learnverse.community.timeline;
+
+import com.example.learnverse.community.follow.Follow;
+import com.example.learnverse.community.follow.FollowGraphCache;
+import com.example.learnverse.community.follow.FollowRepository;
+import com.example.learnverse.community.model.Post;
+import com.example.learnverse.community.service.PostService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Fan-out-on-write timelines. New posts are pushed into every follower's capped
+ * timeline by a small worker pool; tutors with very many followers are skipped
+ * at write time and pulled in at read time instead (hybrid mode).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TimelineService {
+
+    private static final Comparator<Timeline.Entry> NEWEST_FIRST =
+            Comparator.comparing(Timeline.Entry::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()));
+
+    private final MongoTemplate mongoTemplate;
+    private final TimelineRepository timelineRepository;
+    private final FollowRepository followRepository;
+    private final FollowGraphCache followGraph;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.community.timeline.max-entries:500}")
+    private int maxEntries;
+
+    @Value("${app.community.timeline.celebrity-follower-threshold:5000}")
+    private long celebrityThreshold;
+
+    @Value("${app.community.timeline.fanout-threads:4}")
+    private int fanoutThreads;
+
+    @Value("${app.community.timeline.fanout-queue:1000}")
+    private int fanoutQueue;
+
+    @Value("${app.community.timeline.hot-cache-size:10000}")
+    private long hotCacheSize;
+
+    // Pulled authors' recent posts are shared by all their followers for this long
+    @Value("${app.community.timeline.pull-cache-ttl:5s}")
+    private Duration pullCacheTtl;
+
+    private ThreadPoolExecutor fanoutExecutor;
+
+    // Hot copy of recently read timelines, including which followed authors are pulled at read time
+    private Cache<String, TimelineView> hotTimelines;
+
+    // Recent entries of authors pulled at read time, keyed by author id
+    private Cache<String, List<Timeline.Entry>> pulledEntries;
+
+    @PostConstruct
+    void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        fanoutExecutor = new ThreadPoolExecutor(
+                fanoutThreads, fanoutThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(fanoutQueue),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "timeline-fanout-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // A full queue slows the poster down instead of silently dropping timeline writes
+                new ThreadPoolExecutor.CallerRunsPolicy());
+
+        hotTimelines = Caffeine.newBuilder()
+                .maximumSize(hotCacheSize)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .recordStats()
+                .build();
+
+        pulledEntries = Caffeine.newBuilder()
+                .maximumSize(hotCacheSize)
+                .expireAfterWrite(pullCacheTtl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, hotTimelines, "timelines");
+        CaffeineCacheMetrics.monitor(meterRegistry, pulledEntries, "timeline-pulled-authors");
+        Gauge.builder("learnverse.timeline.fanout.queue", fanoutExecutor, e -> e.getQueue().size())
+                .description("Posts waiting to be fanned out to follower timelines")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        fanoutExecutor.shutdown();
+    }
+
+    /**
+     * Queue a new post for delivery to its author's followers.
+     */
+    public void fanOut(Post post) {
+        fanoutExecutor.execute(() -> {
+            try {
+                pushToFollowers(post);
+            } catch (Exception e) {
+                log.error("❌ Timeline fan-out failed for post {}: {}", post.getId(), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Drop a user's materialized timeline; it is rebuilt from the follow graph on next read.
+     * Called whenever the user's follows change.
+     */
+    public void invalidate(String userId) {
+        hotTimelines.invalidate(userId);
+        timelineRepository.deleteById(userId);
+    }
+
+    /**
+     * Following-feed entries for a user, newest first: the materialized timeline
+     * merged with recent posts from followed authors that are pulled at read time.
+     */
+    public List<Timeline.Entry> getEntries(String userId) {
+        TimelineView view = hotTimelines.get(userId, this::loadView);
+
+        if (view.pullAuthorIds().isEmpty()) {
+            return view.entries();
+        }
+
+        Map<String, Timeline.Entry> merged = new LinkedHashMap<>();
+        view.entries().forEach(entry -> merged.put(entry.getPostId(), entry));
+        for (String authorId : view.pullAuthorIds()) {
+            pulledEntries.get(authorId, this::loadRecentEntries)
+                    .forEach(entry -> merged.putIfAbsent(entry.getPostId(), entry));
+        }
+
+        return merged.values().stream()
+                .sorted(NEWEST_FIRST)
+                .limit(maxEntries)
+                .collect(Collectors.toList());
+    }
+
+    private void pushToFollowers(Post post) {
+        String authorId = post.getAuthorId();
+        if (isCelebrity(authorId)) {
+            pulledEntries.invalidate(authorId);
+            log.debug("Skipping fan-out for high-follower author {}; pulled at read time", authorId);
+            return;
+        }
+
+        List<String> followerIds = followRepository.findByFollowingId(authorId).stream()
+                .map(Follow::getFollowerId)
+                .collect(Collectors.toList());
+        if (followerIds.isEmpty()) {
+            return;
+        }
+
+        Update update = new Update()
+                .push("entries").atPosition(Update.Position.FIRST).slice(maxEntries).each(toEntry(post))
+                .set("updatedAt", LocalDateTime.now());
+
+        // Only followers that already have a materialized timeline are touched;
+        // the rest pick the post up when their timeline is first built.
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Timeline.class);
+        for (String followerId : followerIds) {
+            bulk.updateOne(Query.query(Criteria.where("_id").is(followerId)), update);
+        }
+        bulk.execute();
+
+        hotTimelines.invalidateAll(followerIds);
+        log.debug("📬 Fanned out post {} to {} followers", post.getId(), followerIds.size());
+    }
+
+    private TimelineView loadView(String userId) {
+        List<String> followingIds = followGraph.getFollowing(userId);
+
+        List<String> pullAuthorIds = new ArrayList<>();
+        List<String> pushAuthorIds = new ArrayList<>();
+        for (String authorId : followingIds) {
+            (isCelebrity(authorId) ? pullAuthorIds : pushAuthorIds).add(authorId);
+        }
+
+        List<Timeline.Entry> entries = timelineRepository.findById(userId)
+                .map(Timeline::getEntries)
+                .orElseGet(() -> rebuild(userId, pushAuthorIds));
+
+        // A rebuild racing a fan-out (or another rebuild) can leave the same post in twice
+        Map<String, Timeline.Entry> unique = new LinkedHashMap<>();
+        entries.forEach(entry -> unique.putIfAbsent(entry.getPostId(), entry));
+
+        return new TimelineView(List.copyOf(unique.values()), List.copyOf(pullAuthorIds));
+    }
+
+    private List<Timeline.Entry> rebuild(String userId, List<String> pushAuthorIds) {
+        List<Timeline.Entry> entries = pushAuthorIds.isEmpty()
+                ? List.of()
+                : recentEntries(Criteria.where("authorId").in(pushAuthorIds));
+
+        // Merged into whatever a concurrent fan-out or rebuild has written meanwhile, never saved over it
+        Timeline timeline = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(userId)),
+                new Update()
+                        .push("entries").sort(Sort.by(Sort.Direction.DESC, "createdAt")).slice(maxEntries)
+                        .each(entries.toArray())
+                        .set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Timeline.class);
+        return timeline != null ? timeline.getEntries() : entries;
+    }
+
+    private List<Timeline.Entry> loadRecentEntries(String authorId) {
+        return recentEntries(Criteria.where("authorId").is(authorId));
+    }
+
+    // Newest published posts of the given authors, as bare entries: served from idx_author_created, no count query
+    private List<Timeline.Entry> recentEntries(Criteria authors) {
+        Query query = new Query(authors.and("mediaStatus").in(PostService.PUBLISHED_MEDIA_STATUSES))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt"))
+                .limit(maxEntries);
+        query.fields().include("authorId", "createdAt");
+
+        return mongoTemplate.find(query, Post.class).stream()
+                .map(this::toEntry)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private boolean isCelebrity(String authorId) {
+        return followGraph.getFollowerCount(authorId) > celebrityThreshold;
+    }
+
+    private Timeline.Entry toEntry(Post post) {
+        return new Timeline.Entry(post.getId(), post.getAuthorId(), post.getCreatedAt());
+    }
+
+    private record TimelineView(List<Timeline.Entry> entries, List<String> pullAuthorIds) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.learnverse.community.websocket;
+
+import java.util.List;
+
+/**
+ * A community event as it travels between nodes: already-serialized JSON plus the topics it targets.
+ */
+public record CommunityEvent(
+        String id,
+        String originNode,
+        List<String> topics,
+        String json
+) {}
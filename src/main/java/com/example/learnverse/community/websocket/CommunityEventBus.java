@@ -0,0 +1,14 @@
+package com.example.learnverse.community.websocket;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries community events to every node's WebSocket sessions. Implementations
+ * must deliver each event at most once per listener, including events raised locally.
+ */
+public interface CommunityEventBus {
+
+    void publish(CommunityEvent event);
+
+    void subscribe(Consumer<CommunityEvent> listener);
+}
@@ -1,16 +1,26 @@
 package com.example.learnverse.community.websocket;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.*;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Component
 public class CommunityWebSocketHandler extends TextWebSocketHandler {
 
     @Autowired
     private WebSocketNotificationService webSocketService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         webSocketService.addSession(session);
@@ -23,9 +33,35 @@ public class CommunityWebSocketHandler extends TextWebSocketHandler {
         System.out.println("WebSocket connection closed: " + session.getId());
     }
 
+    // Clients declare interest with {"action": "subscribe" | "unsubscribe", "topics": ["post:<id>", "feed:<authorId>", ...]}
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
-        // Handle incoming messages if needed
-        System.out.println("Received: " + message.getPayload());
+        JsonNode request;
+        try {
+            request = objectMapper.readTree(message.getPayload());
+        } catch (Exception e) {
+            sendReply(session, Map.of("type", "ERROR", "message", "Invalid JSON"));
+            return;
+        }
+
+        String action = request.path("action").asText("");
+        List<String> topics = new ArrayList<>();
+        request.path("topics").forEach(topic -> topics.add(topic.asText()));
+
+        switch (action) {
+            case "subscribe" -> {
+                Set<String> joined = webSocketService.subscribe(session, topics);
+                sendReply(session, Map.of("type", "SUBSCRIBED", "topics", joined));
+            }
+            case "unsubscribe" -> {
+                webSocketService.unsubscribe(session, topics);
+                sendReply(session, Map.of("type", "UNSUBSCRIBED", "topics", topics));
+            }
+            default -> sendReply(session, Map.of("type", "ERROR", "message", "Unknown action: " + action));
+        }
+    }
+
+    private void sendReply(WebSocketSession session, Object reply) {
+        webSocketService.reply(session, reply);
     }
 }
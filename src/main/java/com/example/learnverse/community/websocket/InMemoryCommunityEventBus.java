@@ -0,0 +1,28 @@
+package com.example.learnverse.community.websocket;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Single-node bus: events only reach sessions connected to this JVM.
+ */
+@Component
+@ConditionalOnProperty(name = "app.community.event-bus", havingValue = "memory", matchIfMissing = true)
+public class InMemoryCommunityEventBus implements CommunityEventBus {
+
+    private final List<Consumer<CommunityEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(CommunityEvent event) {
+        listeners.forEach(listener -> listener.accept(event));
+    }
+
+    @Override
+    public void subscribe(Consumer<CommunityEvent> listener) {
+        listeners.add(listener);
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.learnverse.community.websocket;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.IndexOptions;
+import com.mongodb.client.model.Indexes;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Multi-node bus backed by a MongoDB change stream on {@code community_events}.
+ * Each node inserts the events it raises and tails inserts from every node;
+ * local events are delivered immediately and their echo from the stream is skipped.
+ * Requires a replica set (change streams are unavailable on a standalone mongod).
+ */
+@Component
+@ConditionalOnProperty(name = "app.community.event-bus", havingValue = "mongo")
+@RequiredArgsConstructor
+@Slf4j
+public class MongoCommunityEventBus implements CommunityEventBus {
+
+    static final String COLLECTION = "community_events";
+    private static final int CHANGE_STREAM_HISTORY_LOST = 286;
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final List<Consumer<CommunityEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    // Event ids already delivered on this node; absorbs local echoes and replays after a stream resume
+    private final Cache<String, Boolean> delivered = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .build();
+
+    private volatile boolean running;
+    private Thread watcher;
+    private Counter relayed;
+    private Counter duplicates;
+
+    @PostConstruct
+    void start() {
+        // Events only need to outlive a stream reconnect; old ones are purged by TTL
+        events().createIndex(Indexes.ascending("createdAt"),
+                new IndexOptions().name("idx_created_ttl").expireAfter(1L, TimeUnit.HOURS));
+
+        relayed = meterRegistry.counter("learnverse.ws.bus.events", "source", "remote");
+        duplicates = meterRegistry.counter("learnverse.ws.bus.duplicates");
+
+        running = true;
+        watcher = new Thread(this::watch, "ws-event-bus");
+        watcher.setDaemon(true);
+        watcher.start();
+        log.info("✅ Community event bus on MongoDB change stream (node {})", nodeId);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        watcher.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @Override
+    public void publish(CommunityEvent event) {
+        CommunityEvent stamped = new CommunityEvent(event.id(), nodeId, event.topics(), event.json());
+        deliver(stamped);
+        try {
+            events().insertOne(new Document("_id", stamped.id())
+                    .append("origin", nodeId)
+                    .append("topics", stamped.topics())
+                    .append("json", stamped.json())
+                    .append("createdAt", new Date()));
+        } catch (Exception e) {
+            log.warn("⚠️ Failed to relay community event {} to other nodes: {}", stamped.id(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CommunityEvent> listener) {
+        listeners.add(listener);
+    }
+
+    private void watch() {
+        BsonDocument resumeToken = null;
+        while (running) {
+            var stream = events()
+                    .watch(List.of(Aggregates.match(Filters.and(
+                            Filters.eq("operationType", "insert"),
+                            Filters.ne("fullDocument.origin", nodeId)))))
+                    .fullDocument(FullDocument.DEFAULT)
+                    .maxAwaitTime(1, TimeUnit.SECONDS);
+            if (resumeToken != null) {
+                stream = stream.resumeAfter(resumeToken);
+            }
+
+            try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+                while (running) {
+                    // tryNext returns null after maxAwaitTime so shutdown is noticed promptly
+                    ChangeStreamDocument<Document> change = cursor.tryNext();
+                    if (cursor.getResumeToken() != null) {
+                        resumeToken = cursor.getResumeToken();
+                    }
+                    if (change != null && change.getFullDocument() != null) {
+                        relayed.increment();
+                        deliver(toEvent(change.getFullDocument()));
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    return;
+                }
+                if (e instanceof MongoCommandException commandError && commandError.getErrorCode() == CHANGE_STREAM_HISTORY_LOST) {
+                    // Resume point aged out of the oplog; start again from now
+                    resumeToken = null;
+                }
+                log.warn("⚠️ Community event stream interrupted, reconnecting: {}", e.getMessage());
+                sleepQuietly();
+            }
+        }
+    }
+
+    private void deliver(CommunityEvent event) {
+        if (delivered.asMap().putIfAbsent(event.id(), Boolean.TRUE) != null) {
+            duplicates.increment();
+            return;
+        }
+        for (Consumer<CommunityEvent> listener : listeners) {
+            try {
+                listener.accept(event);
+            } catch (Exception e) {
+                log.error("❌ Community event listener failed for {}: {}", event.id(), e.getMessage());
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private CommunityEvent toEvent(Document doc) {
+        return new CommunityEvent(
+                doc.getString("_id"),
+                doc.getString("origin"),
+                (List<String>) doc.get("topics", List.class),
+                doc.getString("json"));
+    }
+
+    private MongoCollection<Document> events() {
+        return mongoTemplate.getCollection(COLLECTION);
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
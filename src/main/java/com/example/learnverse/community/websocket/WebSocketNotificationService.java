@@ -2,27 +2,207 @@ package com.example.learnverse.community.websocket;
 
 
 import com.example.learnverse.community.model.Post;
+import com.example.learnverse.media.model.MediaJob;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Routes community events to the sessions subscribed to their topics:
+ * <ul>
+ *   <li>{@code feed:all} – every new post (the public feed)</li>
+ *   <li>{@code feed:{authorId}} – new posts by one author (follower feeds)</li>
+ *   <li>{@code post:{postId}} – comments and coalesced like/share counts on one post</li>
+ *   <li>{@code user:{userId}} – activity on a user's own posts; joined automatically on connect</li>
+ * </ul>
+ * Events travel through the {@link CommunityEventBus}, so with a shared bus a session on any
+ * node receives events raised on any other node.
+ */
 @Service
+@RequiredArgsConstructor
+@Slf4j
 public class WebSocketNotificationService {
 
-    private final Set<WebSocketSession> activeSessions = ConcurrentHashMap.newKeySet();
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    public static final String FEED_ALL = "feed:all";
+    private static final int MAX_TOPICS_PER_SESSION = 200;
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final CommunityEventBus eventBus;
+
+    @Value("${app.community.websocket.send-time-limit-ms:5000}")
+    private int sendTimeLimitMs;
+
+    @Value("${app.community.websocket.buffer-size-limit:524288}")
+    private int bufferSizeLimit;
+
+    // TERMINATE disconnects a client that falls too far behind; DROP discards its oldest queued frames
+    @Value("${app.community.websocket.overflow-strategy:TERMINATE}")
+    private ConcurrentWebSocketSessionDecorator.OverflowStrategy overflowStrategy;
+
+    @Value("${app.community.websocket.dispatch-threads:2}")
+    private int dispatchThreads;
+
+    @Value("${app.community.websocket.dispatch-queue:10000}")
+    private int dispatchQueue;
+
+    // Sessions wrapped so concurrent sends are safe and bounded in time and buffered bytes
+    private final Map<String, ConcurrentWebSocketSessionDecorator> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> subscribers = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> sessionTopics = new ConcurrentHashMap<>();
+
+    @Value("${app.community.websocket.stats-window-ms:250}")
+    private long statsWindowMs;
+
+    // Latest like/share counts per post since the last flush
+    private final Map<String, Post> pendingStats = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor dispatcher;
+    private ScheduledExecutorService statsFlusher;
+    private Counter statsUpdates;
+    private Counter statsFrames;
+    private Counter droppedEvents;
+    private Counter slowConsumers;
+
+    @PostConstruct
+    void init() {
+        // Registered before the executors start: the rejection handler and the flusher use them
+        droppedEvents = meterRegistry.counter("learnverse.ws.events.dropped");
+        statsUpdates = meterRegistry.counter("learnverse.ws.post_stats", "stage", "received");
+        statsFrames = meterRegistry.counter("learnverse.ws.post_stats", "stage", "emitted");
+        slowConsumers = meterRegistry.counter("learnverse.ws.sessions.slow_consumer");
+
+        AtomicInteger threadCount = new AtomicInteger();
+        dispatcher = new ThreadPoolExecutor(
+                dispatchThreads, dispatchThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(dispatchQueue),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "ws-dispatch-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> droppedEvents.increment());
+
+        statsFlusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ws-stats-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        statsFlusher.scheduleWithFixedDelay(this::flushPostStats, statsWindowMs, statsWindowMs, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("learnverse.ws.dispatch.queue", dispatcher, e -> e.getQueue().size())
+                .description("Events waiting to be fanned out to WebSocket sessions")
+                .register(meterRegistry);
+        Gauge.builder("learnverse.ws.buffered.bytes", sessions,
+                        all -> all.values().stream().mapToLong(ConcurrentWebSocketSessionDecorator::getBufferSize).sum())
+                .description("Bytes queued across all WebSocket sessions")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("learnverse.ws.sessions", sessions, Map::size)
+                .register(meterRegistry);
+
+        eventBus.subscribe(this::deliver);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        statsFlusher.shutdown();
+        dispatcher.shutdown();
+    }
 
     public void addSession(WebSocketSession session) {
-        activeSessions.add(session);
+        sessions.put(session.getId(), new ConcurrentWebSocketSessionDecorator(
+                session, sendTimeLimitMs, bufferSizeLimit, overflowStrategy));
+        sessionTopics.put(session.getId(), ConcurrentHashMap.newKeySet());
+        if (session.getPrincipal() != null) {
+            subscribe(session, List.of(userTopic(session.getPrincipal().getName())));
+        }
     }
 
     public void removeSession(WebSocketSession session) {
-        activeSessions.remove(session);
+        removeSession(session.getId());
+    }
+
+    private void removeSession(String sessionId) {
+        sessions.remove(sessionId);
+        Set<String> topics = sessionTopics.remove(sessionId);
+        if (topics != null) {
+            topics.forEach(topic -> unsubscribeTopic(sessionId, topic));
+        }
+    }
+
+    /**
+     * Reply to one session through its decorator, so replies never race with event delivery.
+     */
+    public void reply(WebSocketSession session, Object message) {
+        ConcurrentWebSocketSessionDecorator target = sessions.get(session.getId());
+        if (target != null) {
+            try {
+                send(target, new TextMessage(objectMapper.writeValueAsString(message)));
+            } catch (Exception e) {
+                log.warn("⚠️ WebSocket reply failed for session {}: {}", session.getId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return the topics actually joined; other users' private topics and anything past the per-session cap are ignored
+     */
+    public Set<String> subscribe(WebSocketSession session, Collection<String> topics) {
+        Set<String> current = sessionTopics.get(session.getId());
+        Set<String> joined = new HashSet<>();
+        if (current == null) {
+            return joined;
+        }
+
+        for (String topic : topics) {
+            if (!isAllowed(session, topic) || current.size() >= MAX_TOPICS_PER_SESSION) {
+                continue;
+            }
+            current.add(topic);
+            subscribers.computeIfAbsent(topic, k -> ConcurrentHashMap.newKeySet()).add(session.getId());
+            joined.add(topic);
+        }
+        return joined;
+    }
+
+    public void unsubscribe(WebSocketSession session, Collection<String> topics) {
+        Set<String> current = sessionTopics.get(session.getId());
+        if (current == null) {
+            return;
+        }
+        for (String topic : topics) {
+            if (current.remove(topic)) {
+                unsubscribeTopic(session.getId(), topic);
+            }
+        }
     }
 
     public void broadcastNewPost(Post post) {
@@ -30,46 +210,145 @@ public class WebSocketNotificationService {
                 "type", "NEW_POST",
                 "data", post
         );
-        broadcast(message);
+        publish(message, FEED_ALL, feedTopic(post.getAuthorId()));
     }
 
-    public void broadcastNewComment(String postId, Post.Comment comment) {
+    public void broadcastNewComment(Post post, Post.Comment comment) {
         Map<String, Object> message = Map.of(
                 "type", "NEW_COMMENT",
-                "postId", postId,
+                "postId", post.getId(),
                 "data", comment
         );
-        broadcast(message);
+        publish(message, postTopic(post.getId()), userTopic(post.getAuthorId()));
     }
 
-    public void broadcastPostLike(String postId, String userId) {
-        Map<String, Object> message = Map.of(
-                "type", "POST_LIKE",
-                "postId", postId,
-                "userId", userId
-        );
-        broadcast(message);
+    /**
+     * Like/share counts are coalesced per post and flushed as one POST_STATS frame
+     * per window, so a burst of reactions on a hot post costs one frame, not thousands.
+     */
+    public void broadcastPostStats(Post counts) {
+        statsUpdates.increment();
+        pendingStats.put(counts.getId(), counts);
     }
 
-    public void broadcastPostShare(String postId, String userId) {
-        Map<String, Object> message = Map.of(
-                "type", "POST_SHARE",
-                "postId", postId,
-                "userId", userId
-        );
-        broadcast(message);
+    // Never lets an exception escape: that would silently cancel the scheduled flush for good
+    private void flushPostStats() {
+        for (String postId : pendingStats.keySet()) {
+            Post counts = pendingStats.remove(postId);
+            if (counts == null) {
+                continue;
+            }
+            try {
+                Map<String, Object> message = Map.of(
+                        "type", "POST_STATS",
+                        "postId", postId,
+                        "likesCount", counts.getLikesCount(),
+                        "sharesCount", counts.getSharesCount()
+                );
+                statsFrames.increment();
+                publish(message, postTopic(postId), userTopic(counts.getAuthorId()));
+            } catch (Exception e) {
+                log.warn("⚠️ Failed to flush stats for post {}: {}", postId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Tell the job owner that a queued upload finished (MEDIA_READY) or gave up (MEDIA_FAILED).
+     */
+    public void notifyMediaJob(MediaJob job) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("type", job.getStatus() == MediaJob.Status.READY ? "MEDIA_READY" : "MEDIA_FAILED");
+        message.put("jobId", job.getId());
+        message.put("kind", job.getKind());
+        message.put("targetId", job.getTargetId());
+        message.put("itemId", job.getItemId());
+        message.put("url", job.getResultUrl());
+        message.put("error", job.getLastError());
+        publish(message, userTopic(job.getOwnerId()));
     }
 
-    private void broadcast(Object message) {
-        activeSessions.removeIf(session -> !session.isOpen());
+    public static String feedTopic(String authorId) {
+        return "feed:" + authorId;
+    }
+
+    public static String postTopic(String postId) {
+        return "post:" + postId;
+    }
 
-        activeSessions.forEach(session -> {
+    public static String userTopic(String userId) {
+        return "user:" + userId;
+    }
+
+    // Serialization and publishing happen on the dispatcher, never on the request thread that raised the event
+    private void publish(Object message, String... topics) {
+        dispatcher.execute(() -> {
             try {
-                String jsonMessage = objectMapper.writeValueAsString(message);
-                session.sendMessage(new TextMessage(jsonMessage));
+                eventBus.publish(new CommunityEvent(
+                        UUID.randomUUID().toString(), null, List.of(topics), objectMapper.writeValueAsString(message)));
             } catch (Exception e) {
-                e.printStackTrace();
+                log.error("❌ Failed to publish WebSocket event: {}", e.getMessage());
+            }
+        });
+    }
+
+    private void deliver(CommunityEvent event) {
+        // A session subscribed to several matching topics still gets the event once
+        Set<String> targets = new HashSet<>();
+        for (String topic : event.topics()) {
+            Set<String> sessionIds = subscribers.get(topic);
+            if (sessionIds != null) {
+                targets.addAll(sessionIds);
+            }
+        }
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        TextMessage payload = new TextMessage(event.json());
+        for (String sessionId : targets) {
+            ConcurrentWebSocketSessionDecorator session = sessions.get(sessionId);
+            if (session == null || !session.isOpen()) {
+                removeSession(sessionId);
+                continue;
             }
+            send(session, payload);
+        }
+    }
+
+    private void send(ConcurrentWebSocketSessionDecorator session, TextMessage payload) {
+        try {
+            // Returns immediately if another thread is already flushing this session
+            session.sendMessage(payload);
+        } catch (SessionLimitExceededException e) {
+            slowConsumers.increment();
+            log.warn("⚠️ Disconnecting slow WebSocket session {}: {}", session.getId(), e.getMessage());
+            removeSession(session.getId());
+            try {
+                session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (Exception closeError) {
+                log.debug("Close after overflow failed for {}: {}", session.getId(), closeError.getMessage());
+            }
+        } catch (Exception e) {
+            log.warn("⚠️ WebSocket send failed for session {}: {}", session.getId(), e.getMessage());
+        }
+    }
+
+    private boolean isAllowed(WebSocketSession session, String topic) {
+        if (topic == null) {
+            return false;
+        }
+        if (topic.startsWith("user:")) {
+            // Private topic: only the owner may listen
+            return session.getPrincipal() != null && topic.equals(userTopic(session.getPrincipal().getName()));
+        }
+        return topic.equals(FEED_ALL) || topic.startsWith("feed:") || topic.startsWith("post:");
+    }
+
+    private void unsubscribeTopic(String sessionId, String topic) {
+        subscribers.computeIfPresent(topic, (k, sessionIds) -> {
+            sessionIds.remove(sessionId);
+            return sessionIds.isEmpty() ? null : sessionIds;
         });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package com.example.learnverse.media.controller;
+
+import com.example.learnverse.media.store.LocalMediaStore;
+import com.example.learnverse.media.web.FileResponseWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Serves files kept by the local media store. Only registered when {@code app.media.store=local};
+ * Cloudinary URLs point straight at Cloudinary's CDN.
+ */
+@RestController
+@RequestMapping("/api/media/files")
+@ConditionalOnProperty(name = "app.media.store", havingValue = "local")
+@RequiredArgsConstructor
+public class MediaFileController {
+
+    private static final String PREFIX = "/api/media/files/";
+    private static final String VERIFICATION_FOLDER = "learnverse/tutor-verification/";
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private final LocalMediaStore localMediaStore;
+    private final FileResponseWriter fileResponseWriter;
+
+    // Stored keys are unique per upload, so browsers may keep media for long
+    @Value("${app.media.local.cache-max-age:7d}")
+    private Duration cacheMaxAge;
+
+    @GetMapping("/**")
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = PATH_HELPER.getPathWithinApplication(request);
+        String key = path.startsWith(PREFIX) ? path.substring(PREFIX.length()) : "";
+        Optional<Path> file = localMediaStore.resolve(key);
+        if (key.isEmpty() || file.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        // Verification documents are revalidated on every view so access stays checked
+        CacheControl cacheControl = key.startsWith(VERIFICATION_FOLDER)
+                ? CacheControl.noCache().cachePrivate()
+                : CacheControl.maxAge(cacheMaxAge).cachePrivate();
+        fileResponseWriter.write(file.get(), cacheControl, request, response);
+    }
+}
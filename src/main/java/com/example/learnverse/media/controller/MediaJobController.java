@@ -0,0 +1,49 @@
+package com.example.learnverse.media.controller;
+
+import com.example.learnverse.media.model.MediaJob;
+import com.example.learnverse.media.service.MediaPipelineService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/media/jobs")
+@RequiredArgsConstructor
+public class MediaJobController {
+
+    private final MediaPipelineService mediaPipelineService;
+
+    // Poll a job's status (the WebSocket MEDIA_READY/MEDIA_FAILED event is the push alternative)
+    @GetMapping("/{jobId}")
+    public ResponseEntity<?> getJob(@PathVariable String jobId, Authentication auth) {
+        try {
+            MediaJob job = mediaPipelineService.getJob(jobId);
+            if (!job.getOwnerId().equals(auth.getName())) {
+                return ResponseEntity.status(403).body(Map.of("error", "Not your media job"));
+            }
+            return ResponseEntity.ok(job);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(404).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/admin/dead-letter")
+    public ResponseEntity<Page<MediaJob>> getDeadLetters(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(mediaPipelineService.getDeadLetters(page, size));
+    }
+
+    @PostMapping("/admin/{jobId}/retry")
+    public ResponseEntity<?> retryDeadLetter(@PathVariable String jobId) {
+        try {
+            return ResponseEntity.ok(mediaPipelineService.retryDeadLetter(jobId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.learnverse.media.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One queued media upload/transformation. The uploaded bytes wait in a spool file
+ * until a worker hands them to the media backend; the job document tracks retries
+ * and ends up READY or, after the last failed attempt, DEAD_LETTER. Its index is
+ * created by MediaPipelineService.
+ */
+@Document(collection = "media_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MediaJob {
+
+    public enum Kind { POST_MEDIA, VIDEO }
+
+    public enum Status { PENDING, PROCESSING, READY, DEAD_LETTER }
+
+    @Id
+    private String id;
+
+    private Kind kind;
+    private Status status;
+
+    private String ownerId;     // User notified on completion
+    private String targetId;    // Post id or activity id
+    private String itemId;      // Video id within the activity, when relevant
+
+    private String nodeId;      // Node whose local spool holds the file; only it runs the job
+    private String spoolPath;
+    private String contentType;
+    private String originalFilename;
+    private long size;
+
+    private int attempts;
+    private String lastError;
+    private String resultUrl;
+
+    private LocalDateTime nextAttemptAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,13 @@
+package com.example.learnverse.media.repository;
+
+import com.example.learnverse.media.model.MediaJob;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface MediaJobRepository extends MongoRepository<MediaJob, String> {
+
+    Page<MediaJob> findByStatusOrderByUpdatedAtDesc(MediaJob.Status status, Pageable pageable);
+}
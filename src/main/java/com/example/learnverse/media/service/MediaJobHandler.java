@@ -0,0 +1,24 @@
+package com.example.learnverse.media.service;
+
+import com.example.learnverse.media.model.MediaJob;
+
+import java.nio.file.Path;
+
+/**
+ * Domain side of a media job: upload the spooled file and attach the result to its document.
+ */
+public interface MediaJobHandler {
+
+    MediaJob.Kind kind();
+
+    /**
+     * @return the URL of the processed media
+     * @throws Exception any failure; the job is retried with backoff
+     */
+    String process(MediaJob job, Path file) throws Exception;
+
+    /**
+     * Called once the job has exhausted its retries.
+     */
+    void onDeadLetter(MediaJob job);
+}
@@ -0,0 +1,340 @@
+package com.example.learnverse.media.service;
+
+import com.example.learnverse.community.websocket.WebSocketNotificationService;
+import com.example.learnverse.media.model.MediaJob;
+import com.example.learnverse.media.repository.MediaJobRepository;
+import com.mongodb.client.model.IndexOptions;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs media uploads off the request thread. A request spools its file, records a
+ * PENDING job and returns the job id; a bounded worker pool claims jobs, hands them
+ * to the {@link MediaJobHandler} for their kind and announces the outcome on the
+ * owner's WebSocket topic. Failures are retried with exponential backoff and end
+ * up in the dead-letter list after the last attempt.
+ * <p>
+ * Jobs that could not be queued (pool saturated, node restarted, retry due) are
+ * picked up by a periodic sweep of the media_jobs collection. Spool files sit on
+ * the submitting node's disk, so each job is stamped with that node's id and only
+ * that node sweeps and claims it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MediaPipelineService {
+
+    private final MediaJobRepository jobRepository;
+    private final MongoTemplate mongoTemplate;
+    private final List<MediaJobHandler> handlerList;
+    private final WebSocketNotificationService webSocketService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.media.pipeline.workers:2}")
+    private int workers;
+
+    @Value("${app.media.pipeline.queue:100}")
+    private int queueCapacity;
+
+    @Value("${app.media.pipeline.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${app.media.pipeline.retry-backoff-ms:10000}")
+    private long retryBackoffMs;
+
+    // A PROCESSING job untouched for this long is assumed orphaned by a crashed worker
+    @Value("${app.media.pipeline.stale-after-ms:1800000}")
+    private long staleAfterMs;
+
+    @Value("${app.media.upload.spool-dir:${java.io.tmpdir}/learnverse-uploads}")
+    private String spoolDir;
+
+    // Must stay the same across restarts so a node picks its own spooled jobs back up
+    @Value("${app.media.pipeline.node-id:${HOSTNAME:}}")
+    private String nodeId;
+
+    private final Map<MediaJob.Kind, MediaJobHandler> handlers = new EnumMap<>(MediaJob.Kind.class);
+    private ThreadPoolExecutor executor;
+    private Path jobSpool;
+    private Counter completed;
+    private Counter retried;
+    private Counter deadLettered;
+
+    @PostConstruct
+    void init() throws IOException {
+        handlerList.forEach(handler -> handlers.put(handler.kind(), handler));
+        jobSpool = Files.createDirectories(Paths.get(spoolDir, "jobs"));
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = InetAddress.getLocalHost().getHostName();
+        }
+
+        // Auto index creation is off; the sweeper's query needs this one
+        mongoTemplate.getCollection("media_jobs").createIndex(
+                new Document("status", 1).append("nodeId", 1).append("nextAttemptAt", 1),
+                new IndexOptions().name("status_node_next_attempt"));
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(
+                workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "media-worker-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        completed = meterRegistry.counter("learnverse.media.jobs", "outcome", "ready");
+        retried = meterRegistry.counter("learnverse.media.jobs", "outcome", "retry");
+        deadLettered = meterRegistry.counter("learnverse.media.jobs", "outcome", "dead_letter");
+        Gauge.builder("learnverse.media.jobs.queue", executor, e -> e.getQueue().size())
+                .description("Media jobs waiting for a worker on this node")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Spool an uploaded file and queue it for processing.
+     */
+    public MediaJob submit(MediaJob.Kind kind, String ownerId, String targetId, String itemId,
+                           MultipartFile file) throws IOException {
+        String jobId = new ObjectId().toHexString();
+        Path spooled = jobSpool.resolve(jobId);
+        file.transferTo(spooled);
+        return enqueue(jobId, kind, ownerId, targetId, itemId, spooled,
+                file.getContentType(), file.getOriginalFilename());
+    }
+
+    /**
+     * Queue a file that is already on local disk; it is moved into the job spool.
+     */
+    public MediaJob submit(MediaJob.Kind kind, String ownerId, String targetId, String itemId,
+                           Path file, String contentType, String originalFilename) throws IOException {
+        String jobId = new ObjectId().toHexString();
+        Path spooled = Files.move(file, jobSpool.resolve(jobId), StandardCopyOption.REPLACE_EXISTING);
+        return enqueue(jobId, kind, ownerId, targetId, itemId, spooled, contentType, originalFilename);
+    }
+
+    public MediaJob getJob(String jobId) {
+        return jobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Media job not found"));
+    }
+
+    public Page<MediaJob> getDeadLetters(int page, int size) {
+        return jobRepository.findByStatusOrderByUpdatedAtDesc(MediaJob.Status.DEAD_LETTER, PageRequest.of(page, size));
+    }
+
+    /**
+     * Give a dead-lettered job a fresh set of attempts.
+     */
+    public MediaJob retryDeadLetter(String jobId) {
+        MediaJob existing = getJob(jobId);
+        boolean local = isLocal(existing);
+        if (local && !Files.exists(Paths.get(existing.getSpoolPath()))) {
+            throw new RuntimeException("Spooled media for this job is no longer available");
+        }
+
+        MediaJob job = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(jobId).and("status").is(MediaJob.Status.DEAD_LETTER)),
+                new Update()
+                        .set("status", MediaJob.Status.PENDING)
+                        .set("attempts", 0)
+                        .set("nextAttemptAt", LocalDateTime.now())
+                        .set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                MediaJob.class);
+        if (job == null) {
+            throw new RuntimeException("Media job is not in the dead-letter list");
+        }
+        // Another node's job is picked up by that node's sweep
+        if (local) {
+            dispatch(job.getId());
+        }
+        return job;
+    }
+
+    @Scheduled(fixedDelayString = "${app.media.pipeline.sweep-interval-ms:15000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("status").is(MediaJob.Status.PROCESSING)
+                        .and("nodeId").in(localNodeIds())
+                        .and("updatedAt").lt(now.minusNanos(staleAfterMs * 1_000_000))),
+                new Update().set("status", MediaJob.Status.PENDING).set("nextAttemptAt", now),
+                MediaJob.class);
+
+        Query due = new Query(Criteria.where("status").is(MediaJob.Status.PENDING)
+                .and("nodeId").in(localNodeIds())
+                .and("nextAttemptAt").lte(now))
+                .limit(Math.max(1, queueCapacity - executor.getQueue().size()));
+        due.fields().include("_id");
+        for (MediaJob job : mongoTemplate.find(due, MediaJob.class)) {
+            if (!dispatch(job.getId())) {
+                break;
+            }
+        }
+    }
+
+    private MediaJob enqueue(String jobId, MediaJob.Kind kind, String ownerId, String targetId, String itemId,
+                             Path spooled, String contentType, String originalFilename) throws IOException {
+        LocalDateTime now = LocalDateTime.now();
+        MediaJob job = jobRepository.save(MediaJob.builder()
+                .id(jobId)
+                .kind(kind)
+                .status(MediaJob.Status.PENDING)
+                .ownerId(ownerId)
+                .targetId(targetId)
+                .itemId(itemId)
+                .nodeId(nodeId)
+                .spoolPath(spooled.toString())
+                .contentType(contentType)
+                .originalFilename(originalFilename)
+                .size(Files.size(spooled))
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+
+        dispatch(jobId);
+        log.info("📥 Media job {} queued ({} for {})", jobId, kind, targetId);
+        return job;
+    }
+
+    // false when the pool is saturated; the job stays PENDING for the next sweep
+    private boolean dispatch(String jobId) {
+        try {
+            executor.execute(() -> run(jobId));
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.debug("Media pool saturated; job {} left for the sweeper", jobId);
+            return false;
+        }
+    }
+
+    private void run(String jobId) {
+        // Claim atomically so a sweep or another node cannot process the same job twice
+        MediaJob job = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(jobId)
+                        .and("status").is(MediaJob.Status.PENDING)
+                        .and("nodeId").in(localNodeIds())),
+                new Update()
+                        .set("status", MediaJob.Status.PROCESSING)
+                        .inc("attempts", 1)
+                        .set("updatedAt", LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true),
+                MediaJob.class);
+        if (job == null) {
+            return;
+        }
+
+        MediaJobHandler handler = handlers.get(job.getKind());
+        Path file = Paths.get(job.getSpoolPath());
+        try {
+            String url = handler.process(job, file);
+            markReady(job, url);
+            Files.deleteIfExists(file);
+        } catch (Exception e) {
+            onFailure(job, handler, e);
+        }
+    }
+
+    // Jobs queued before node ids were recorded have none; any node may still take those
+    private List<String> localNodeIds() {
+        return Arrays.asList(nodeId, null);
+    }
+
+    private boolean isLocal(MediaJob job) {
+        return job.getNodeId() == null || job.getNodeId().equals(nodeId);
+    }
+
+    private void markReady(MediaJob job, String url) {
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(job.getId())),
+                new Update()
+                        .set("status", MediaJob.Status.READY)
+                        .set("resultUrl", url)
+                        .unset("lastError")
+                        .set("updatedAt", LocalDateTime.now()),
+                MediaJob.class);
+        job.setStatus(MediaJob.Status.READY);
+        job.setResultUrl(url);
+
+        completed.increment();
+        webSocketService.notifyMediaJob(job);
+        log.info("✅ Media job {} ready after {} attempt(s)", job.getId(), job.getAttempts());
+    }
+
+    private void onFailure(MediaJob job, MediaJobHandler handler, Exception error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        boolean exhausted = job.getAttempts() >= maxAttempts;
+
+        Update update = new Update()
+                .set("lastError", message)
+                .set("updatedAt", LocalDateTime.now());
+        if (exhausted) {
+            update.set("status", MediaJob.Status.DEAD_LETTER);
+        } else {
+            long backoff = retryBackoffMs << Math.min(job.getAttempts() - 1, 10);
+            update.set("status", MediaJob.Status.PENDING)
+                    .set("nextAttemptAt", LocalDateTime.now().plusNanos(backoff * 1_000_000));
+        }
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(job.getId())), update, MediaJob.class);
+
+        if (!exhausted) {
+            retried.increment();
+            log.warn("⚠️ Media job {} failed (attempt {}/{}), will retry: {}",
+                    job.getId(), job.getAttempts(), maxAttempts, message);
+            return;
+        }
+
+        deadLettered.increment();
+        log.error("❌ Media job {} dead-lettered after {} attempts: {}", job.getId(), job.getAttempts(), message);
+        job.setStatus(MediaJob.Status.DEAD_LETTER);
+        job.setLastError(message);
+        try {
+            handler.onDeadLetter(job);
+        } catch (Exception e) {
+            log.error("❌ Dead-letter handling failed for media job {}: {}", job.getId(), e.getMessage());
+        }
+        webSocketService.notifyMediaJob(job);
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.learnverse.media.store;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.Transformation;
+import com.cloudinary.utils.ObjectUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cloudinary backend. Uploads never buffer a whole file in memory: multipart parts
+ * are spooled to disk and the file is streamed to Cloudinary, in chunks once it is
+ * larger than one chunk. A semaphore caps how many uploads run at once.
+ */
+@Component
+@ConditionalOnProperty(name = "app.media.store", havingValue = "cloudinary", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class CloudinaryMediaStore implements MediaStore {
+
+    // .../{resource_type}/upload/[v123/]{public_id}[.ext]
+    private static final Pattern DELIVERY_URL = Pattern.compile("/(image|video|raw)/upload/(?:v\\d+/)?(.+)$");
+
+    private final Cloudinary cloudinary;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.media.upload.max-concurrent:4}")
+    private int maxConcurrentUploads;
+
+    @Value("${app.media.upload.acquire-timeout-ms:30000}")
+    private long acquireTimeoutMs;
+
+    // Bytes Cloudinary buffers per request when uploading in chunks (minimum 5 MB)
+    @Value("${app.media.upload.chunk-size:6000000}")
+    private int chunkSize;
+
+    @Value("${app.media.upload.spool-dir:${java.io.tmpdir}/learnverse-uploads}")
+    private String spoolDir;
+
+    private Semaphore uploadPermits;
+    private Path spoolPath;
+
+    @PostConstruct
+    void init() throws IOException {
+        uploadPermits = new Semaphore(maxConcurrentUploads, true);
+        spoolPath = Files.createDirectories(Paths.get(spoolDir));
+        Gauge.builder("learnverse.media.uploads.active", uploadPermits,
+                        permits -> maxConcurrentUploads - permits.availablePermits())
+                .description("Media uploads currently streaming to Cloudinary")
+                .register(meterRegistry);
+        log.info("✅ Media stored on Cloudinary");
+    }
+
+    @Override
+    public StoredMedia store(Path file, MediaSpec spec) throws IOException {
+        Map<String, Object> params = new HashMap<>();
+        params.put("folder", spec.folder());
+        params.put("resource_type", switch (spec.kind()) {
+            case IMAGE -> "image";
+            case VIDEO -> "video";
+            case AUTO -> "auto";
+        });
+        if (spec.name() != null) {
+            params.put("public_id", spec.name());
+        }
+        if (spec.fit() != null) {
+            Transformation transformation = new Transformation()
+                    .width(spec.fit().width())
+                    .height(spec.fit().height())
+                    .crop(spec.fit().crop());
+            if (spec.fit().gravity() != null) {
+                transformation.gravity(spec.fit().gravity());
+            }
+            params.put("transformation", transformation.quality("auto").fetchFormat("auto"));
+        }
+
+        Map result = upload(file, params);
+        String publicId = (String) result.get("public_id");
+        Number duration = (Number) result.get("duration");
+
+        String thumbnailUrl = null;
+        if (spec.kind() == MediaSpec.Kind.VIDEO) {
+            thumbnailUrl = cloudinary.url()
+                    .resourceType("video")
+                    .transformation(new Transformation()
+                            .startOffset("1")
+                            .width(640)
+                            .height(360)
+                            .crop("fill")
+                            .quality("auto"))
+                    .format("jpg")
+                    .generate(publicId);
+        }
+
+        return new StoredMedia(
+                publicId,
+                (String) result.get("secure_url"),
+                (String) result.get("format"),
+                duration != null ? duration.intValue() : 0,
+                thumbnailUrl);
+    }
+
+    /**
+     * Spool the part to a private temp file (usually a rename of the container's own
+     * temp file) and upload from there.
+     */
+    @Override
+    public StoredMedia store(MultipartFile file, MediaSpec spec) throws IOException {
+        Path spooled = Files.createTempFile(spoolPath, "upload-", ".part");
+        try {
+            file.transferTo(spooled);
+            return store(spooled, spec.originalFilename() != null ? spec : spec.from(file.getOriginalFilename()));
+        } finally {
+            Files.deleteIfExists(spooled);
+        }
+    }
+
+    @Override
+    public void delete(String url) throws IOException {
+        Matcher matcher = url != null ? DELIVERY_URL.matcher(url) : null;
+        if (matcher == null || !matcher.find()) {
+            return;
+        }
+        String resourceType = matcher.group(1);
+        String publicId = matcher.group(2);
+        // Raw files keep their extension in the public id
+        if (!"raw".equals(resourceType) && publicId.lastIndexOf('.') > publicId.lastIndexOf('/')) {
+            publicId = publicId.substring(0, publicId.lastIndexOf('.'));
+        }
+        cloudinary.uploader().destroy(publicId, ObjectUtils.asMap("resource_type", resourceType));
+        log.info("🗑️ Deleted {} from Cloudinary: {}", resourceType, publicId);
+    }
+
+    @Override
+    public void deleteFolder(String folder) throws IOException {
+        try {
+            cloudinary.api().deleteResourcesByPrefix(folder, ObjectUtils.emptyMap());
+        } catch (Exception e) {
+            throw new IOException("Failed to delete Cloudinary folder " + folder + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Stream a file to Cloudinary. Files larger than one chunk go through the chunked
+     * upload API, so at most one chunk is held in memory per upload.
+     */
+    private Map upload(Path file, Map<String, Object> params) throws IOException {
+        if (!uploadPermits.tryAcquire()) {
+            try {
+                if (!uploadPermits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    throw new IOException("Too many uploads in progress, please retry shortly");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted while waiting to upload", e);
+            }
+        }
+        try {
+            File source = file.toFile();
+            log.info("📤 Uploading to Cloudinary {} - Size: {} MB", params.get("folder"), source.length() / (1024.0 * 1024.0));
+            if (source.length() > chunkSize) {
+                Map<String, Object> chunked = new HashMap<>(params);
+                chunked.put("chunk_size", chunkSize);
+                return cloudinary.uploader().uploadLarge(source, chunked);
+            }
+            return cloudinary.uploader().upload(source, params);
+        } finally {
+            uploadPermits.release();
+        }
+    }
+}
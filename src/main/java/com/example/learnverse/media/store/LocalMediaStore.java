@@ -0,0 +1,163 @@
+package com.example.learnverse.media.store;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Stores media under {@code app.file.upload-dir} and serves it back through
+ * {@code /api/media/files/**}. Meant for self-hosted deployments and local runs
+ * without a Cloudinary account: files are kept as uploaded (no image resizing,
+ * no video thumbnail or duration probing).
+ */
+@Component
+@ConditionalOnProperty(name = "app.media.store", havingValue = "local")
+@Slf4j
+public class LocalMediaStore implements MediaStore {
+
+    private static final Pattern EXTENSION = Pattern.compile("[A-Za-z0-9]{1,10}");
+
+    @Value("${app.file.upload-dir:./uploads}")
+    private String uploadDir;
+
+    // Prefix of the URLs handed out for stored files
+    @Value("${app.media.local.base-url:/api/media/files}")
+    private String baseUrl;
+
+    private Path root;
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Files.createDirectories(Paths.get(uploadDir).toAbsolutePath().normalize());
+        log.info("✅ Media stored on local disk at {}", root);
+    }
+
+    @Override
+    public StoredMedia store(Path file, MediaSpec spec) throws IOException {
+        String key = keyFor(spec);
+        Path target = target(key);
+
+        // Copy through the kernel (sendfile/copy_file_range) into a temp file, then publish atomically
+        Path temp = Files.createTempFile(target.getParent(), ".store-", ".part");
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+            out.force(false);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return stored(key);
+    }
+
+    @Override
+    public StoredMedia store(MultipartFile file, MediaSpec spec) throws IOException {
+        String key = keyFor(spec.originalFilename() != null ? spec : spec.from(file.getOriginalFilename()));
+        Path target = target(key);
+
+        // Usually a rename of the container's own temp file
+        Path temp = Files.createTempFile(target.getParent(), ".store-", ".part");
+        try {
+            file.transferTo(temp);
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return stored(key);
+    }
+
+    @Override
+    public void delete(String url) throws IOException {
+        Optional<Path> file = resolveUrl(url);
+        if (file.isPresent()) {
+            Files.deleteIfExists(file.get());
+            log.info("🗑️ Deleted local media: {}", file.get());
+        }
+    }
+
+    @Override
+    public void deleteFolder(String folder) throws IOException {
+        Path dir = root.resolve(folder).normalize();
+        if (!dir.startsWith(root) || dir.equals(root) || !Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Map a key from a served URL to its file, refusing anything outside the upload dir.
+     */
+    public Optional<Path> resolve(String key) {
+        Path file = root.resolve(key).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(file);
+    }
+
+    /**
+     * Map a URL handed out by {@link #store} to its file; empty for URLs of other backends.
+     */
+    public Optional<Path> resolveUrl(String url) {
+        if (url == null || !url.startsWith(baseUrl + "/")) {
+            return Optional.empty();
+        }
+        return resolve(url.substring(baseUrl.length() + 1));
+    }
+
+    private StoredMedia stored(String key) {
+        int dot = key.lastIndexOf('.');
+        String format = dot > key.lastIndexOf('/') ? key.substring(dot + 1) : null;
+        log.info("✅ Stored local media: {}", key);
+        return new StoredMedia(key, baseUrl + "/" + key, format, 0, null);
+    }
+
+    private String keyFor(MediaSpec spec) {
+        String name = spec.name() != null ? spec.name() : UUID.randomUUID().toString();
+        String extension = extension(spec.originalFilename());
+        return spec.folder() + "/" + name + (extension != null ? "." + extension : "");
+    }
+
+    private Path target(String key) throws IOException {
+        Path target = root.resolve(key).normalize();
+        if (!target.startsWith(root) || target.equals(root)) {
+            throw new IOException("Invalid media path: " + key);
+        }
+        Files.createDirectories(target.getParent());
+        return target;
+    }
+
+    private String extension(String filename) {
+        if (filename == null || filename.lastIndexOf('.') < 0) {
+            return null;
+        }
+        String extension = filename.substring(filename.lastIndexOf('.') + 1);
+        return EXTENSION.matcher(extension).matches() ? extension.toLowerCase(Locale.ROOT) : null;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.learnverse.media.store;
+
+/**
+ * How and where to store one file.
+ *
+ * @param folder           logical folder, e.g. {@code learnverse/videos/{activityId}}
+ * @param name             file name without extension; generated when null
+ * @param kind             what the file holds
+ * @param originalFilename client file name, used for the extension
+ * @param fit              resize applied to images by backends that can transform them
+ */
+public record MediaSpec(String folder, String name, Kind kind, String originalFilename, ImageFit fit) {
+
+    public enum Kind { IMAGE, VIDEO, AUTO }
+
+    public record ImageFit(int width, int height, String crop, String gravity) {}
+
+    public static MediaSpec image(String folder) {
+        return new MediaSpec(folder, null, Kind.IMAGE, null, null);
+    }
+
+    public static MediaSpec video(String folder) {
+        return new MediaSpec(folder, null, Kind.VIDEO, null, null);
+    }
+
+    public static MediaSpec auto(String folder) {
+        return new MediaSpec(folder, null, Kind.AUTO, null, null);
+    }
+
+    public MediaSpec named(String name) {
+        return new MediaSpec(folder, name, kind, originalFilename, fit);
+    }
+
+    public MediaSpec from(String originalFilename) {
+        return new MediaSpec(folder, name, kind, originalFilename, fit);
+    }
+
+    public MediaSpec fit(int width, int height, String crop) {
+        return fit(width, height, crop, null);
+    }
+
+    public MediaSpec fit(int width, int height, String crop, String gravity) {
+        return new MediaSpec(folder, name, kind, originalFilename, new ImageFit(width, height, crop, gravity));
+    }
+}
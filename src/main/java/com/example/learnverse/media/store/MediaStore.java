@@ -0,0 +1,32 @@
+package com.example.learnverse.media.store;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Where uploaded media ends up. The active backend is picked with
+ * {@code app.media.store} ({@code cloudinary} or {@code local}); callers only keep
+ * the returned URL, so deletes are also addressed by URL.
+ */
+public interface MediaStore {
+
+    /**
+     * Store a file from local disk. The file is left in place for the caller to clean up.
+     */
+    StoredMedia store(Path file, MediaSpec spec) throws IOException;
+
+    StoredMedia store(MultipartFile file, MediaSpec spec) throws IOException;
+
+    /**
+     * Remove a stored file by the URL {@link #store} returned. URLs this backend
+     * did not issue are ignored.
+     */
+    void delete(String url) throws IOException;
+
+    /**
+     * Remove everything stored under a folder.
+     */
+    void deleteFolder(String folder) throws IOException;
+}
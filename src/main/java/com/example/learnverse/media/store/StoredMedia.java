@@ -0,0 +1,12 @@
+package com.example.learnverse.media.store;
+
+/**
+ * Result of storing a file.
+ *
+ * @param key             backend identifier (Cloudinary public id or path under the upload dir)
+ * @param url             URL clients fetch the file from
+ * @param format          file format / extension, when known
+ * @param durationSeconds playback length for videos; 0 when the backend cannot tell
+ * @param thumbnailUrl    poster image for videos, when the backend generates one
+ */
+public record StoredMedia(String key, String url, String format, int durationSeconds, String thumbnailUrl) {}
@@ -1,13 +1,23 @@
 package com.example.learnverse.tutor.controller;
 
+import com.example.learnverse.media.store.LocalMediaStore;
+import com.example.learnverse.media.web.FileResponseWriter;
 import com.example.learnverse.tutor.storage.FileStorageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/files")
@@ -17,6 +27,13 @@ public class FileController {
     @Autowired
     private FileStorageService fileStorageService;
 
+    // Only present when app.media.store=local
+    @Autowired
+    private ObjectProvider<LocalMediaStore> localMediaStore;
+
+    @Autowired
+    private FileResponseWriter fileResponseWriter;
+
     /**
      * ✅ Admin: Get verification document info (now returns Cloudinary URL)
      */
@@ -27,9 +44,9 @@ public class FileController {
         try {
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("message", "Documents are stored in Cloudinary");
+            response.put("message", "Documents are stored in the configured media store");
             response.put("verificationId", verificationId);
-            response.put("note", "Access Cloudinary URLs from TutorVerification MongoDB document");
+            response.put("note", "Open document URLs from the TutorVerification document via /api/files/verification-documents/content?url=");
 
             return ResponseEntity.ok(response);
         } catch (Exception ex) {
@@ -61,6 +78,32 @@ public class FileController {
         }
     }
 
+    /**
+     * ✅ Admin: View a verification document by its stored URL.
+     * Locally stored documents are streamed with Range, ETag and Last-Modified support;
+     * remote ones are redirected to (Cloudinary's CDN handles those itself).
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/verification-documents/content")
+    public void viewDocument(
+            @RequestParam String url,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        LocalMediaStore store = localMediaStore.getIfAvailable();
+        Optional<Path> file = store != null ? store.resolveUrl(url) : Optional.empty();
+        if (file.isPresent()) {
+            // Always revalidate: a 304 is cheap and access stays checked on every view
+            fileResponseWriter.write(file.get(), CacheControl.noCache().cachePrivate(), request, response);
+            return;
+        }
+        if (!url.startsWith("https://")) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+        response.sendRedirect(url);
+    }
+
     /**
      * Test endpoint
      */
@@ -68,7 +111,7 @@ public class FileController {
     public ResponseEntity<?> testFileController() {
         return ResponseEntity.ok(Map.of(
                 "message", "FileController is working!",
-                "note", "All files are now stored in Cloudinary"
+                "note", "Files are stored in the configured media store (app.media.store)"
         ));
     }
 }
\ No newline at end of file
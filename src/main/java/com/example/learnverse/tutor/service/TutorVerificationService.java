@@ -2,10 +2,12 @@ package com.example.learnverse.tutor.service;
 
 import com.example.learnverse.activity.model.Activity;
 import com.example.learnverse.activity.repository.ActivityRepository;
+import com.example.learnverse.auth.event.UserProfileChangedEvent;
 import com.example.learnverse.auth.repo.UserRepository;
 import com.example.learnverse.auth.user.AppUser;
 import com.example.learnverse.tutor.storage.FileStorageService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import com.example.learnverse.tutor.model.TutorVerification;
@@ -32,6 +34,9 @@ public class TutorVerificationService {
     @Autowired
     private  ActivityRepository activityRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public TutorVerification createVerificationRequest(
             String email,
             String fullName,
@@ -199,12 +204,10 @@ public class TutorVerificationService {
         }
 
         try {
-            // Delete old profile picture from Cloudinary (optional but recommended)
+            // Delete old profile picture (optional but recommended)
             if (verification.getProfilePicturePath() != null) {
                 try {
-                    // Extract public_id from URL and delete
-                    String publicId = extractPublicIdFromUrl(verification.getProfilePicturePath());
-                    fileStorageService.deleteCloudinaryImage(publicId);
+                    fileStorageService.deleteImage(verification.getProfilePicturePath());
                 } catch (Exception e) {
                     // Continue even if deletion fails
                     System.err.println("Failed to delete old profile picture: " + e.getMessage());
@@ -225,6 +228,7 @@ public class TutorVerificationService {
 
             // ✅ Auto-update all tutor's activities with new profile picture
             updateActivitiesProfilePicture(verification.getEmail(), newProfilePicturePath);
+            eventPublisher.publishEvent(UserProfileChangedEvent.ofEmail(verification.getEmail()));
 
             return verification;
 
@@ -263,29 +267,6 @@ public class TutorVerificationService {
         }
     }
 
-    /**
-     * Extract public_id from Cloudinary URL
-     */
-    private String extractPublicIdFromUrl(String cloudinaryUrl) {
-        // Example URL: https://res.cloudinary.com/cloud/image/upload/v123/folder/image.jpg
-        // Extract: folder/image (without extension)
-        try {
-            String[] parts = cloudinaryUrl.split("/upload/");
-            if (parts.length > 1) {
-                String path = parts[1];
-                // Remove version number if present (v1234567890/)
-                path = path.replaceFirst("v\\d+/", "");
-                // Remove file extension
-                path = path.substring(0, path.lastIndexOf('.'));
-                return path;
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to extract public_id: " + e.getMessage());
-        }
-        return null;
-    }
-
-
     /**
      * Validate all required files
      */
@@ -1,24 +1,22 @@
 package com.example.learnverse.tutor.storage;
 
-import com.cloudinary.Cloudinary;
-import com.cloudinary.Transformation;
-import com.cloudinary.utils.ObjectUtils;
+import com.example.learnverse.media.store.MediaSpec;
+import com.example.learnverse.media.store.MediaStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.Map;
 import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
 public class FileStorageService {
 
-    private final Cloudinary cloudinary;
+    private final MediaStore mediaStore;
 
     /**
-     * ✅ Store verification documents to Cloudinary (ID, Certificate)
+     * ✅ Store verification documents (ID, Certificate)
      */
     public String storeFile(MultipartFile file, String verificationId, String fileType) throws IOException {
         try {
@@ -28,27 +26,17 @@ public class FileStorageService {
 
             String fileName = fileType + "_" + UUID.randomUUID().toString();
 
-            // Upload to Cloudinary
-            Map uploadResult = cloudinary.uploader().upload(
-                    file.getBytes(),
-                    ObjectUtils.asMap(
-                            "folder", "learnverse/tutor-verification/" + verificationId,
-                            "resource_type", "auto",  // Auto-detect: PDF, JPG, PNG
-                            "public_id", fileName
-                    )
-            );
-
-            // ✅ Return Cloudinary URL (NOT local path)
-            String cloudinaryUrl = (String) uploadResult.get("secure_url");
-            return cloudinaryUrl;
+            // Auto-detect: PDF, JPG, PNG
+            return mediaStore.store(file, MediaSpec.auto("learnverse/tutor-verification/" + verificationId)
+                    .named(fileName)).url();
 
         } catch (Exception e) {
-            throw new IOException("Failed to store document to Cloudinary: " + e.getMessage(), e);
+            throw new IOException("Failed to store document: " + e.getMessage(), e);
         }
     }
 
     /**
-     * ✅ Store profile picture to Cloudinary (optimized for images)
+     * ✅ Store profile picture (cropped to the face where the store supports it)
      */
     public String storeProfilePicture(MultipartFile file, String verificationId) throws IOException {
         try {
@@ -59,24 +47,9 @@ public class FileStorageService {
 
             String fileName = "profile_" + UUID.randomUUID().toString();
 
-            // Upload to Cloudinary with image transformations
-            Map uploadResult = cloudinary.uploader().upload(
-                    file.getBytes(),
-                    ObjectUtils.asMap(
-                            "folder", "learnverse/tutor-profiles/" + verificationId,
-                            "public_id", fileName,
-                            "resource_type", "image",
-                            "transformation", new Transformation()
-                                    .width(400).height(400)
-                                    .crop("fill")
-                                    .gravity("face")
-                                    .quality("auto")
-                                    .fetchFormat("auto")
-                    )
-            );
-
-            // ✅ Return Cloudinary URL
-            return (String) uploadResult.get("secure_url");
+            return mediaStore.store(file, MediaSpec.image("learnverse/tutor-profiles/" + verificationId)
+                    .named(fileName)
+                    .fit(400, 400, "fill", "face")).url();
 
         } catch (Exception e) {
             throw new IOException("Failed to store profile picture: " + e.getMessage(), e);
@@ -84,60 +57,32 @@ public class FileStorageService {
     }
 
     /**
-     * ✅ Delete verification files from Cloudinary
+     * ✅ Delete verification files
      */
     public void deleteVerificationFiles(String verificationId) {
         try {
-            // Delete entire folder from Cloudinary
-            cloudinary.api().deleteResourcesByPrefix(
-                    "learnverse/tutor-verification/" + verificationId,
-                    ObjectUtils.emptyMap()
-            );
-
-            cloudinary.api().deleteResourcesByPrefix(
-                    "learnverse/tutor-profiles/" + verificationId,
-                    ObjectUtils.emptyMap()
-            );
+            mediaStore.deleteFolder("learnverse/tutor-verification/" + verificationId);
+            mediaStore.deleteFolder("learnverse/tutor-profiles/" + verificationId);
 
-            System.out.println("✅ Deleted Cloudinary files for verification: " + verificationId);
+            System.out.println("✅ Deleted stored files for verification: " + verificationId);
 
         } catch (Exception e) {
-            System.err.println("Failed to delete Cloudinary files: " + e.getMessage());
+            System.err.println("Failed to delete verification files: " + e.getMessage());
             // Don't throw - continue even if deletion fails
         }
     }
 
     /**
-     * ✅ Delete specific image from Cloudinary
-     */
-    public void deleteCloudinaryImage(String publicId) {
-        try {
-            if (publicId != null && !publicId.isEmpty()) {
-                cloudinary.uploader().destroy(publicId, ObjectUtils.emptyMap());
-                System.out.println("✅ Deleted Cloudinary image: " + publicId);
-            }
-        } catch (Exception e) {
-            System.err.println("Failed to delete Cloudinary image: " + e.getMessage());
-        }
-    }
-
-    /**
-     * ✅ Extract public_id from Cloudinary URL for deletion
+     * ✅ Delete a stored image by its URL
      */
-    private String extractPublicIdFromUrl(String cloudinaryUrl) {
+    public void deleteImage(String url) {
         try {
-            String[] parts = cloudinaryUrl.split("/upload/");
-            if (parts.length > 1) {
-                String path = parts[1];
-                // Remove version number if present
-                path = path.replaceFirst("v\\d+/", "");
-                // Remove file extension
-                path = path.substring(0, path.lastIndexOf('.'));
-                return path;
+            if (url != null && !url.isEmpty()) {
+                mediaStore.delete(url);
+                System.out.println("✅ Deleted stored image: " + url);
             }
         } catch (Exception e) {
-            System.err.println("Failed to extract public_id: " + e.getMessage());
+            System.err.println("Failed to delete stored image: " + e.getMessage());
         }
-        return null;
     }
-}
\ No newline at end of file
+}
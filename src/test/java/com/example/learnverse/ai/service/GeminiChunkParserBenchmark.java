@@ -0,0 +1,110 @@
+package com.example.learnverse.ai.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Per-chunk cost of the streaming JsonParser extraction against the readTree walk it
+ * replaced, over a sample streamed answer (src/test/resources/gemini/stream-answer.sse).
+ * Run on demand with GEMINI_PARSER_BENCHMARK=true ./gradlew test --tests '*GeminiChunkParserBenchmark'.
+ */
+@EnabledIfEnvironmentVariable(named = "GEMINI_PARSER_BENCHMARK", matches = "true")
+class GeminiChunkParserBenchmark {
+
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int MEASURED_ROUNDS = 100_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private GeminiService geminiService;
+    private List<String> chunks;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        geminiService = new GeminiService(WebClient.create(), objectMapper);
+
+        String stream = new ClassPathResource("gemini/stream-answer.sse")
+                .getContentAsString(StandardCharsets.UTF_8);
+        chunks = Arrays.stream(stream.split("\r?\n\r?\n"))
+                .map(event -> event.startsWith("data: ") ? event.substring(6).trim() : event.trim())
+                .filter(event -> !event.isEmpty())
+                .toList();
+    }
+
+    @Test
+    void compareReadTreeWithStreamingParser() {
+        // Both must extract the same text before their cost is worth comparing
+        assertEquals(chunks.stream().map(this::readTreeText).toList(),
+                chunks.stream().map(geminiService::extractTextChunk).toList());
+
+        Result readTree = measure(this::readTreeText);
+        Result parser = measure(geminiService::extractTextChunk);
+
+        System.out.printf("%-12s %14s %16s%n", "extractor", "ns/chunk", "bytes/chunk");
+        System.out.printf("%-12s %14.0f %16.0f%n", "readTree", readTree.nanosPerChunk(), readTree.bytesPerChunk());
+        System.out.printf("%-12s %14.0f %16.0f%n", "JsonParser", parser.nanosPerChunk(), parser.bytesPerChunk());
+        System.out.printf("speed-up x%.2f, allocation -%.0f%%%n",
+                readTree.nanosPerChunk() / parser.nanosPerChunk(),
+                100 * (1 - parser.bytesPerChunk() / readTree.bytesPerChunk()));
+    }
+
+    // The extraction GeminiService used before the streaming parser
+    private String readTreeText(String json) {
+        try {
+            JsonNode text = objectMapper.readTree(json).path("candidates").path(0)
+                    .path("content").path("parts").path(0).path("text");
+            return text.isMissingNode() || text.asText().isEmpty() ? null : text.asText();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Result measure(Function<String, String> extractor) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += extract(extractor);
+        }
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().threadId();
+        long allocatedBefore = threads.getThreadAllocatedBytes(thread);
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            sink += extract(extractor);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(thread) - allocatedBefore;
+
+        // Keeps the JIT from discarding the extraction
+        if (sink == 42) {
+            System.out.println(sink);
+        }
+        double measuredChunks = (double) MEASURED_ROUNDS * chunks.size();
+        return new Result(elapsed / measuredChunks, allocated / measuredChunks);
+    }
+
+    private long extract(Function<String, String> extractor) {
+        long length = 0;
+        for (String chunk : chunks) {
+            String text = extractor.apply(chunk);
+            length += text != null ? text.length() : 0;
+        }
+        return length;
+    }
+
+    private record Result(double nanosPerChunk, double bytesPerChunk) {}
+}
@@ -0,0 +1,161 @@
+package com.example.learnverse.ai.service;
+
+import com.example.learnverse.ai.config.GeminiClientConfig;
+import com.example.learnverse.ai.config.GeminiClientProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Runs GeminiService against a local stub SSE server through the same pooled
+ * client the application builds.
+ */
+class GeminiServiceTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private volatile BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> handler;
+
+    private DisposableServer server;
+    private ConnectionProvider connectionProvider;
+    private GeminiService geminiService;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .doOnConnection(connection -> connections.incrementAndGet())
+                .handle((request, response) -> handler.apply(request, response))
+                .bindNow();
+
+        GeminiClientProperties properties = new GeminiClientProperties();
+        properties.setMaxConnections(1);
+        properties.setHttp2(false);
+        properties.setResponseTimeout(TIMEOUT);
+
+        GeminiClientConfig config = new GeminiClientConfig(properties);
+        connectionProvider = config.geminiConnectionProvider();
+        WebClient webClient = config.geminiWebClient(connectionProvider, WebClient.builder());
+
+        geminiService = new GeminiService(webClient, new ObjectMapper());
+        ReflectionTestUtils.setField(geminiService, "baseUrl", "http://localhost:" + server.port());
+        ReflectionTestUtils.setField(geminiService, "apiKey", "test-key");
+        geminiService.initStreamUri();
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionProvider.disposeLater().block(TIMEOUT);
+        server.disposeNow();
+    }
+
+    @Test
+    void streamsTextChunksFromSse() {
+        handler = sse(textEvent("Hello"), textEvent(", world"), "[DONE]");
+
+        List<String> chunks = geminiService.streamChunks("hi").collectList().block(TIMEOUT);
+
+        assertEquals(List.of("Hello", ", world"), chunks);
+    }
+
+    @Test
+    void reusesPooledConnectionAcrossStreams() {
+        handler = sse(textEvent("first"));
+        assertEquals(List.of("first"), geminiService.streamChunks("one").collectList().block(TIMEOUT));
+
+        handler = sse(textEvent("second"));
+        assertEquals(List.of("second"), geminiService.streamChunks("two").collectList().block(TIMEOUT));
+
+        assertEquals(1, connections.get());
+    }
+
+    @Test
+    void decodesEventSplitAcrossFrames() {
+        String event = "data: " + textEvent("split answer") + "\n\n";
+        int cut = event.indexOf("text") + 2;
+        handler = (request, response) -> request.receive().then()
+                .then(response.header("Content-Type", "text/event-stream")
+                        .sendString(Flux.just(event.substring(0, cut), event.substring(cut))
+                                .delayElements(Duration.ofMillis(50)))
+                        .then());
+
+        List<String> chunks = geminiService.streamChunks("hi").collectList().block(TIMEOUT);
+
+        assertEquals(List.of("split answer"), chunks);
+    }
+
+    @Test
+    void extractsTextPastUnrelatedFields() {
+        String chunk = "{\"candidates\":[{\"safetyRatings\":[{\"category\":\"HARM\",\"probability\":\"LOW\"}],"
+                + "\"content\":{\"role\":\"model\",\"parts\":[{\"text\":\"Hi \\\"there\\\" \\u00e9\"}]}}],"
+                + "\"modelVersion\":\"gemini-2.0-flash-exp\"}";
+
+        assertEquals("Hi \"there\" \u00e9", geminiService.extractTextChunk(chunk));
+    }
+
+    @Test
+    void returnsNullWhenTextIsMissing() {
+        assertNull(geminiService.extractTextChunk(
+                "{\"candidates\":[{\"content\":{\"parts\":[{\"inlineData\":{\"mimeType\":\"image/png\"}}]}}]}"));
+        assertNull(geminiService.extractTextChunk(
+                "{\"candidates\":[{\"finishReason\":\"STOP\"}],\"usageMetadata\":{\"totalTokenCount\":12}}"));
+        assertNull(geminiService.extractTextChunk(
+                "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"\"}]}}]}"));
+        assertNull(geminiService.extractTextChunk("{\"candidates\":[]}"));
+    }
+
+    @Test
+    void returnsNullForErrorPayloads() {
+        assertNull(geminiService.extractTextChunk(
+                "{\"error\":{\"code\":429,\"message\":\"Resource exhausted\",\"status\":\"RESOURCE_EXHAUSTED\"}}"));
+        assertNull(geminiService.extractTextChunk("{\"candidates\":[{\"content\":{\"parts\":[{\"text\":"));
+        assertNull(geminiService.extractTextChunk("not json"));
+    }
+
+    @Test
+    void fallsBackWhenUpstreamFails() {
+        handler = (request, response) -> request.receive().then()
+                .then(response.status(500)
+                        .header("Content-Type", "application/json")
+                        .sendString(Mono.just("{\"error\":{\"code\":500,\"message\":\"Internal error\"}}"))
+                        .then());
+
+        assertEquals(List.of(GeminiService.FALLBACK_MESSAGE),
+                geminiService.streamFromGemini("hi").collectList().block(TIMEOUT));
+        assertThrows(RuntimeException.class,
+                () -> geminiService.streamChunks("hi").collectList().block(TIMEOUT));
+    }
+
+    private static BiFunction<HttpServerRequest, HttpServerResponse, Publisher<Void>> sse(String... events) {
+        return (request, response) -> request.receive().then()
+                .then(response.header("Content-Type", "text/event-stream")
+                        .sendString(Flux.fromArray(events).map(event -> "data: " + event + "\n\n"))
+                        .then());
+    }
+
+    private static String textEvent(String text) {
+        return "{\"candidates\":[{\"content\":{\"parts\":[{\"text\":\"" + text + "\"}],\"role\":\"model\"}}]}";
+    }
+}
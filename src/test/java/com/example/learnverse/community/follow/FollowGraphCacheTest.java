@@ -0,0 +1,112 @@
+package com.example.learnverse.community.follow;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FollowGraphCacheTest {
+
+    private FollowRepository followRepository;
+    private FollowGraphCache cache;
+
+    @BeforeEach
+    void setUp() {
+        followRepository = mock(FollowRepository.class);
+        cache = new FollowGraphCache(followRepository, mock(UserStatsService.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxEdges", 1000L);
+        ReflectionTestUtils.setField(cache, "maxTutors", 3L);
+        ReflectionTestUtils.setField(cache, "ttl", Duration.ofMinutes(30));
+        cache.init();
+    }
+
+    @Test
+    void isFollowingOnColdCacheSeesExistingFollow() {
+        when(followRepository.findFollowingIdsByFollowerId("student")).thenReturn(follows("student", "tutor-1", "tutor-2"));
+
+        assertTrue(cache.isFollowing("student", "tutor-2"));
+        assertFalse(cache.isFollowing("student", "tutor-3"));
+    }
+
+    @Test
+    void followDuringLoadIsNotLostFromCache() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(followRepository.findFollowingIdsByFollowerId("student"))
+                .thenAnswer(invocation -> {
+                    // Read from before the follow was inserted
+                    loading.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return follows("student", "tutor-1");
+                })
+                .thenReturn(follows("student", "tutor-1", "tutor-2"));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> staleRead = executor.submit(() -> cache.isFollowing("student", "tutor-2"));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            Future<?> follow = executor.submit(() -> cache.onFollow("student", "tutor-2"));
+            release.countDown();
+
+            staleRead.get(5, TimeUnit.SECONDS);
+            follow.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertTrue(cache.isFollowing("student", "tutor-2"));
+    }
+
+    @Test
+    void followAndUnfollowPatchLoadedSet() {
+        when(followRepository.findFollowingIdsByFollowerId("student")).thenReturn(follows("student", "tutor-1"));
+        assertEquals(List.of("tutor-1"), cache.getFollowing("student"));
+
+        cache.onFollow("student", "tutor-2");
+        cache.onUnfollow("student", "tutor-1");
+
+        assertEquals(List.of("tutor-2"), cache.getFollowing("student"));
+        verify(followRepository, times(1)).findFollowingIdsByFollowerId("student");
+    }
+
+    @Test
+    void rebuildsDictionaryPastMaxTutors() {
+        when(followRepository.findFollowingIdsByFollowerId("a")).thenReturn(follows("a", "t1", "t2"));
+        when(followRepository.findFollowingIdsByFollowerId("b")).thenReturn(follows("b", "t3", "t4"));
+
+        assertTrue(cache.isFollowing("a", "t1"));
+        // Four encoded tutors exceed max-tutors, so the dictionary and every set are dropped
+        assertEquals(List.of("t3", "t4"), cache.getFollowing("b"));
+        assertTrue(cache.isFollowing("a", "t2"));
+
+        verify(followRepository, times(2)).findFollowingIdsByFollowerId("a");
+    }
+
+    private static List<Follow> follows(String followerId, String... tutorIds) {
+        List<Follow> follows = new ArrayList<>();
+        for (String tutorId : tutorIds) {
+            Follow follow = new Follow();
+            follow.setFollowerId(followerId);
+            follow.setFollowingId(tutorId);
+            follows.add(follow);
+        }
+        return follows;
+    }
+}
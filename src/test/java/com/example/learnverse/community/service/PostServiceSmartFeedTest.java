@@ -0,0 +1,119 @@
+package com.example.learnverse.community.service;
+
+import com.example.learnverse.community.model.Post;
+import com.example.learnverse.community.repository.PostReactionRepository;
+import com.example.learnverse.community.repository.PostRepository;
+import com.example.learnverse.community.timeline.Timeline;
+import com.example.learnverse.community.timeline.TimelineService;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PostServiceSmartFeedTest {
+
+    private static final int PAGE_SIZE = 5;
+
+    @Mock
+    private PostRepository postRepository;
+
+    @Mock
+    private PostReactionRepository postReactionRepository;
+
+    @Mock
+    private TimelineService timelineService;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private PostService postService;
+
+    // Timeline t0..t14 newest first; t1..t3 were deleted and t9 is still uploading
+    private final List<String> timelineIds = ids("t", 15);
+    private final Set<String> liveTimelineIds = new HashSet<>(timelineIds);
+    private final List<String> otherIds = ids("o", 20);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        liveTimelineIds.removeAll(List.of("t1", "t2", "t3", "t9"));
+
+        when(timelineService.getEntries("student")).thenReturn(timelineIds.stream()
+                .map(id -> new Timeline.Entry(id, "tutor", LocalDateTime.now()))
+                .collect(Collectors.toList()));
+
+        when(mongoTemplate.find(any(Query.class), eq(Post.class))).thenAnswer(invocation -> {
+            Query query = invocation.getArgument(0);
+            Document id = (Document) query.getQueryObject().get("id");
+            if (id.containsKey("$in")) {
+                return posts(((Collection<String>) id.get("$in")).stream().filter(liveTimelineIds::contains).toList());
+            }
+            return posts(otherIds.stream().skip(query.getSkip()).limit(query.getLimit()).toList());
+        });
+
+        lenient().when(postRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            List<String> requested = new ArrayList<>();
+            ((Iterable<String>) invocation.getArgument(0)).forEach(requested::add);
+            return posts(requested.stream().filter(liveTimelineIds::contains).toList());
+        });
+
+        lenient().when(mongoTemplate.estimatedCount(Post.class)).thenReturn(35L);
+    }
+
+    @Test
+    void pagesAcrossTimelineBoundaryWithoutRepeatingPosts() {
+        List<String> served = new ArrayList<>();
+        for (int page = 0; page < 5; page++) {
+            postService.getSmartFeed("student", page, PAGE_SIZE).getContent().forEach(post -> served.add(post.getId()));
+        }
+
+        List<String> expected = new ArrayList<>(timelineIds.stream().filter(liveTimelineIds::contains).toList());
+        expected.addAll(otherIds.subList(0, 25 - expected.size()));
+
+        assertEquals(expected, served);
+    }
+
+    @Test
+    void followingFeedPagesOnlyLivePosts() {
+        List<String> firstPage = postService.getFollowingFeed("student", 0, PAGE_SIZE).getContent().stream()
+                .map(Post::getId)
+                .toList();
+
+        assertEquals(List.of("t0", "t4", "t5", "t6", "t7"), firstPage);
+    }
+
+    private static List<String> ids(String prefix, int count) {
+        return IntStream.range(0, count).mapToObj(i -> prefix + i).collect(Collectors.toList());
+    }
+
+    private static List<Post> posts(List<String> ids) {
+        return ids.stream().map(id -> {
+            Post post = new Post();
+            post.setId(id);
+            return post;
+        }).collect(Collectors.toList());
+    }
+}
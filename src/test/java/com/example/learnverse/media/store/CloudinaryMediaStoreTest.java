@@ -0,0 +1,158 @@
+package com.example.learnverse.media.store;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.Uploader;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Spool, upload and cleanup lifecycle of multipart uploads, with Cloudinary mocked.
+ */
+class CloudinaryMediaStoreTest {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    @TempDir
+    Path spoolDir;
+
+    private Uploader uploader;
+    private CloudinaryMediaStore store;
+
+    // Spool files seen by the uploader and their sizes, captured while the upload runs
+    private final List<Path> uploadedFrom = new ArrayList<>();
+    private final List<Long> uploadedSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Cloudinary cloudinary = mock(Cloudinary.class);
+        uploader = mock(Uploader.class);
+        when(cloudinary.uploader()).thenReturn(uploader);
+
+        store = new CloudinaryMediaStore(cloudinary, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "maxConcurrentUploads", 1);
+        ReflectionTestUtils.setField(store, "acquireTimeoutMs", 200L);
+        ReflectionTestUtils.setField(store, "chunkSize", CHUNK_SIZE);
+        ReflectionTestUtils.setField(store, "spoolDir", spoolDir.toString());
+        store.init();
+    }
+
+    @Test
+    void uploadsSmallFileFromSpoolAndDeletesIt() throws IOException {
+        when(uploader.upload(any(), anyMap())).thenAnswer(invocation -> recordUpload(invocation.getArgument(0)));
+
+        StoredMedia stored = store.store(multipart(CHUNK_SIZE / 2), MediaSpec.image("community/posts"));
+
+        assertEquals("media-id", stored.key());
+        verify(uploader, never()).uploadLarge(any(), anyMap());
+        assertSpooledThenRemoved(CHUNK_SIZE / 2);
+    }
+
+    @Test
+    void uploadsLargeFileInChunks() throws IOException {
+        when(uploader.uploadLarge(any(), anyMap())).thenAnswer(invocation -> recordUpload(invocation.getArgument(0)));
+
+        store.store(multipart(CHUNK_SIZE * 3), MediaSpec.auto("community/posts"));
+
+        verify(uploader).uploadLarge(any(), argThat(params -> Integer.valueOf(CHUNK_SIZE).equals(params.get("chunk_size"))));
+        verify(uploader, never()).upload(any(), anyMap());
+        assertSpooledThenRemoved(CHUNK_SIZE * 3);
+    }
+
+    @Test
+    void deletesSpoolFileWhenUploadFails() throws IOException {
+        when(uploader.upload(any(), anyMap())).thenAnswer(invocation -> {
+            recordUpload(invocation.getArgument(0));
+            throw new IOException("Cloudinary unavailable");
+        });
+
+        assertThrows(IOException.class, () -> store.store(multipart(16), MediaSpec.image("community/posts")));
+
+        assertSpooledThenRemoved(16);
+    }
+
+    @Test
+    void rejectsUploadWhenAllPermitsAreBusy() throws Exception {
+        CountDownLatch uploading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(uploader.upload(any(), anyMap())).thenAnswer(invocation -> {
+            uploading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return Map.of("public_id", "media-id");
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<StoredMedia> first = executor.submit(() -> store.store(multipart(16), MediaSpec.image("community/posts")));
+            assertTrue(uploading.await(5, TimeUnit.SECONDS));
+
+            IOException rejected = assertThrows(IOException.class,
+                    () -> store.store(multipart(16), MediaSpec.image("community/posts")));
+            assertTrue(rejected.getMessage().startsWith("Too many uploads"));
+
+            release.countDown();
+            assertEquals("media-id", first.get(5, TimeUnit.SECONDS).key());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (var leftovers = Files.list(spoolDir)) {
+            assertEquals(0, leftovers.count());
+        }
+    }
+
+    private Map<String, Object> recordUpload(Object source) throws IOException {
+        // Cloudinary gets a file to stream from, never the bytes themselves
+        Path path = assertInstanceOf(File.class, source).toPath();
+        assertTrue(Files.exists(path));
+        uploadedFrom.add(path);
+        uploadedSizes.add(Files.size(path));
+        return Map.of(
+                "public_id", "media-id",
+                "secure_url", "https://res.cloudinary.com/demo/image/upload/media-id.jpg",
+                "format", "jpg");
+    }
+
+    private void assertSpooledThenRemoved(long expectedSize) throws IOException {
+        assertEquals(1, uploadedFrom.size());
+        Path spooled = uploadedFrom.get(0);
+        assertEquals(spoolDir, spooled.getParent());
+        assertEquals(expectedSize, uploadedSizes.get(0));
+        assertTrue(Files.notExists(spooled));
+        try (var leftovers = Files.list(spoolDir)) {
+            assertEquals(0, leftovers.count());
+        }
+    }
+
+    private static MockMultipartFile multipart(int size) {
+        return new MockMultipartFile("file", "photo.jpg", "image/jpeg", new byte[size]);
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.learnverse.media.store;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Upload throughput and peak heap growth of CloudinaryMediaStore against a local stub
+ * upload endpoint. Heap growth should stay near one chunk whatever the file size.
+ * Run on demand with MEDIA_UPLOAD_BENCHMARK=true ./gradlew test --tests '*CloudinaryUploadBenchmark'.
+ */
+@EnabledIfEnvironmentVariable(named = "MEDIA_UPLOAD_BENCHMARK", matches = "true")
+class CloudinaryUploadBenchmark {
+
+    private static final int MB = 1024 * 1024;
+    private static final int CHUNK_SIZE = 6_000_000;
+
+    private static final String UPLOAD_RESPONSE = "{\"public_id\":\"bench\","
+            + "\"secure_url\":\"https://res.cloudinary.com/demo/video/upload/bench.mp4\","
+            + "\"format\":\"mp4\",\"duration\":1}";
+
+    @TempDir
+    Path workDir;
+
+    private final AtomicLong receivedBytes = new AtomicLong();
+
+    private DisposableServer server;
+    private CloudinaryMediaStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .handle((request, response) -> request.receive()
+                        .doOnNext(buffer -> receivedBytes.addAndGet(buffer.readableBytes()))
+                        .then(response.header("Content-Type", "application/json")
+                                .sendString(Mono.just(UPLOAD_RESPONSE))
+                                .then()))
+                .bindNow();
+
+        Cloudinary cloudinary = new Cloudinary(ObjectUtils.asMap(
+                "cloud_name", "bench",
+                "api_key", "key",
+                "api_secret", "secret",
+                "upload_prefix", "http://localhost:" + server.port()));
+
+        store = new CloudinaryMediaStore(cloudinary, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(store, "maxConcurrentUploads", 4);
+        ReflectionTestUtils.setField(store, "acquireTimeoutMs", 30_000L);
+        ReflectionTestUtils.setField(store, "chunkSize", CHUNK_SIZE);
+        ReflectionTestUtils.setField(store, "spoolDir", workDir.resolve("spool").toString());
+        store.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void uploadThroughputAndHeap() throws IOException {
+        // Warm up the HTTP client and JIT before measuring
+        upload(writeFile(8));
+
+        System.out.printf("%10s %12s %12s %18s%n", "size (MB)", "time (ms)", "MB/s", "peak heap +MB");
+        for (int sizeMb : new int[]{16, 64, 256}) {
+            Path file = writeFile(sizeMb);
+            receivedBytes.set(0);
+
+            long heapBefore = settledHeap();
+            heapPools().forEach(MemoryPoolMXBean::resetPeakUsage);
+            long start = System.nanoTime();
+
+            upload(file);
+
+            long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            long peakGrowth = heapPools().stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum() - heapBefore;
+
+            System.out.printf("%10d %12d %12.1f %18.1f%n",
+                    sizeMb, elapsedMs, sizeMb * 1000.0 / elapsedMs, peakGrowth / (double) MB);
+            assertTrue(receivedBytes.get() >= (long) sizeMb * MB, "stub received the whole file");
+
+            Files.delete(file);
+        }
+    }
+
+    private void upload(Path file) throws IOException {
+        store.store(file, MediaSpec.video("bench"));
+    }
+
+    private Path writeFile(int sizeMb) throws IOException {
+        Path file = Files.createTempFile(workDir, "bench-", ".mp4");
+        byte[] block = new byte[MB];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            for (int i = 0; i < sizeMb; i++) {
+                out.write(block);
+            }
+        }
+        return file;
+    }
+
+    private static long settledHeap() {
+        System.gc();
+        return heapPools().stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+    }
+
+    private static List<MemoryPoolMXBean> heapPools() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && pool.isValid())
+                .toList();
+    }
+}